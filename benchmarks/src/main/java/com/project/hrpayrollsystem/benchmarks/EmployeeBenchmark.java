@@ -0,0 +1,50 @@
+package com.project.hrpayrollsystem.benchmarks;
+
+import com.project.hrpayrollsystem.Employee;
+import com.project.hrpayrollsystem.EmployeeRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks creating employees: from the values typed into the add employee screen,
+ * and as a view of a record the way employees are created when the data file is loaded.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmployeeBenchmark {
+
+    private EmployeeRecord[] records;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        records = Rosters.records(1024);
+    }
+
+    @Benchmark
+    public Employee newEmployee() {
+        next = (next + 1) & (records.length - 1);
+        EmployeeRecord record = records[next];
+        return new Employee(record.getFirstName(), record.getLastName(), record.getDepartment(), 25.5, 37.5);
+    }
+
+    @Benchmark
+    public Employee newEmployeeFromRecord() {
+        next = (next + 1) & (records.length - 1);
+        return new Employee(records[next]);
+    }
+}
@@ -0,0 +1,78 @@
+package com.project.hrpayrollsystem.benchmarks;
+
+import com.project.hrpayrollsystem.EmployeeIdAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks handing out employee IDs from four threads at once, as concurrent importers would.
+ * The synchronized counter is how {@code Employee} handed out IDs before the allocator; the allocator hands out
+ * single IDs with a compare-and-set, or a block per import chunk that the importer then assigns on its own.
+ * Every benchmark hands out one ID per operation. The allocator starts over every iteration so it never runs out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class IdAllocatorBenchmark {
+
+    // IDs reserved at once by the block benchmark, the size of an import chunk
+    private static final int BLOCK_SIZE = 5000;
+
+    private int counter;
+    private EmployeeIdAllocator allocator;
+
+    /**
+     * The block of IDs one importer thread is assigning.
+     */
+    @State(Scope.Thread)
+    public static class Block {
+        int next;
+        int end;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            next = 0;
+            end = 0;
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        allocator = new EmployeeIdAllocator();
+    }
+
+    @Benchmark
+    public synchronized int synchronizedCounter() {
+        return ++counter;
+    }
+
+    @Benchmark
+    public int allocatorNextId() {
+        return allocator.nextId();
+    }
+
+    @Benchmark
+    public int allocatorBlock(Block block) {
+        if (block.next == block.end) {
+            block.next = allocator.reserve(BLOCK_SIZE);
+            block.end = block.next + BLOCK_SIZE;
+        }
+        return block.next++;
+    }
+}
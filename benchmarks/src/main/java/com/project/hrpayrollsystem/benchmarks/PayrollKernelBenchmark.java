@@ -0,0 +1,68 @@
+package com.project.hrpayrollsystem.benchmarks;
+
+import com.project.hrpayrollsystem.PayrollColumns;
+import com.project.hrpayrollsystem.PayrollKernel;
+import com.project.hrpayrollsystem.TaxEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks computing the pay figures of ten million employees held in {@link PayrollColumns} on one thread,
+ * with the scalar kernel and with the Vector API kernel, under the default tax rules. Employees computed per second
+ * are the employees divided by the time per operation. The vector kernel needs the incubator module, which the
+ * fork adds; without it {@link PayrollKernel#forRules} falls back to the scalar kernel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "--add-modules=jdk.incubator.vector"})
+public class PayrollKernelBenchmark {
+
+    @Param({"10000000"})
+    public int employees;
+
+    @Param({"scalar", "vector"})
+    public String kernel;
+
+    private PayrollColumns columns;
+    private PayrollKernel payrollKernel;
+    private long[] totalSalary;
+    private long[] taxes;
+    private double[] taxRate;
+    private long[] deductions;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        long[][] figures = Rosters.payColumns(employees);
+        columns = new PayrollColumns(figures[0], figures[1], figures[2], new int[employees], List.of("Sales"));
+        TaxEngine rules = TaxEngine.defaults();
+        payrollKernel = kernel.equals("vector") ? PayrollKernel.forRules(rules) : PayrollKernel.scalar(rules);
+        if (!payrollKernel.getName().startsWith(kernel)) {
+            throw new IllegalStateException("The " + kernel + " kernel is not available");
+        }
+        totalSalary = new long[employees];
+        taxes = new long[employees];
+        taxRate = new double[employees];
+        deductions = new long[employees];
+    }
+
+    @Benchmark
+    public long[] computePayRun() {
+        return payrollKernel.compute(columns, 0, employees, totalSalary, taxes, taxRate, deductions);
+    }
+}
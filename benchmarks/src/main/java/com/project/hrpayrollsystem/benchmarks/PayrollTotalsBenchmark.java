@@ -0,0 +1,111 @@
+package com.project.hrpayrollsystem.benchmarks;
+
+import com.project.hrpayrollsystem.EmployeeRecord;
+import com.project.hrpayrollsystem.FixedPoint;
+import com.project.hrpayrollsystem.PayrollEngine;
+import com.project.hrpayrollsystem.PayrollTotals;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks adding up the salary, tax, deduction and bonus totals of a whole company, in cents as the payroll
+ * engine does against the {@code double} dollars it used before. The roster is held as columns of pay figures so
+ * ten million employees fit in the heap; both versions read the same columns and neither allocates.
+ * The {@code double} version is the old calculation: wage times hours plus bonus, the hard-coded brackets and 2%.
+ * {@code editTotals} is what keeping the totals up to date costs instead: the running {@link PayrollTotals} of the
+ * same roster take the change of one employee's hours, subtracting the old contribution and adding the new one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PayrollTotalsBenchmark {
+
+    @Param({"10000000"})
+    public int employees;
+
+    private long[] wageCents;
+    private long[] hoursHundredths;
+    private long[] bonusCents;
+    private PayrollTotals totals;
+    // The record of the edited employee as it is now and as the next edit makes it
+    private EmployeeRecord before;
+    private EmployeeRecord after;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        long[][] columns = Rosters.payColumns(employees);
+        wageCents = columns[0];
+        hoursHundredths = columns[1];
+        bonusCents = columns[2];
+        totals = new PayrollTotals();
+        for (int i = 0; i < employees; i++) {
+            totals.add(wageCents[i], hoursHundredths[i], bonusCents[i]);
+        }
+        // The first employee, counted with a record of their own instead of their figures in the columns
+        totals.subtract(wageCents[0], hoursHundredths[0], bonusCents[0]);
+        before = new EmployeeRecord(1, "First", "Employee", "Accounting", wageCents[0], hoursHundredths[0], bonusCents[0]);
+        after = before.withPay(before.getWageCents(), before.getHoursHundredths() + 40_000);
+        totals.replace(null, before);
+    }
+
+    @Benchmark
+    public void doubleTotals(Blackhole blackhole) {
+        double salaryTotal = 0, taxTotal = 0, deductionTotal = 0, bonusTotal = 0;
+        for (int i = 0; i < wageCents.length; i++) {
+            double bonus = FixedPoint.toDouble(bonusCents[i]);
+            double salary = FixedPoint.toDouble(wageCents[i]) * FixedPoint.toDouble(hoursHundredths[i]) + bonus;
+            double rate = salary <= 50000 ? 0.10 : salary <= 100000 ? 0.20 : 0.30;
+            salaryTotal += salary;
+            taxTotal += salary * rate;
+            deductionTotal += salary * 0.02;
+            bonusTotal += bonus;
+        }
+        blackhole.consume(salaryTotal);
+        blackhole.consume(taxTotal);
+        blackhole.consume(deductionTotal);
+        blackhole.consume(bonusTotal);
+    }
+
+    @Benchmark
+    public void centsTotals(Blackhole blackhole) {
+        long salaryTotal = 0, taxTotal = 0, deductionTotal = 0, bonusTotal = 0;
+        for (int i = 0; i < wageCents.length; i++) {
+            long salary = PayrollEngine.calculateTotalSalaryCents(wageCents[i], hoursHundredths[i], bonusCents[i]);
+            salaryTotal = Math.addExact(salaryTotal, salary);
+            taxTotal = Math.addExact(taxTotal, PayrollEngine.getTaxCents(salary));
+            deductionTotal = Math.addExact(deductionTotal, PayrollEngine.getDeductionCents(salary));
+            bonusTotal = Math.addExact(bonusTotal, bonusCents[i]);
+        }
+        blackhole.consume(salaryTotal);
+        blackhole.consume(taxTotal);
+        blackhole.consume(deductionTotal);
+        blackhole.consume(bonusTotal);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public long editTotals() {
+        // Alternates between the two records, so the employee moves back and forth by 400 hours
+        totals.replace(before, after);
+        EmployeeRecord edited = after;
+        after = before;
+        before = edited;
+        return totals.getTotalTaxCents();
+    }
+}
@@ -0,0 +1,112 @@
+package com.project.hrpayrollsystem.benchmarks;
+
+import com.project.hrpayrollsystem.Employee;
+import com.project.hrpayrollsystem.EmployeeDataFile;
+import com.project.hrpayrollsystem.EmployeeRecord;
+import com.project.hrpayrollsystem.LazyEmployeeList;
+import com.project.hrpayrollsystem.MappedEmployeeStore;
+import com.project.hrpayrollsystem.OffHeapEmployeeStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks saving and loading the employee data file at different roster sizes, in both layouts and with the
+ * compact layout read into off-heap storage.
+ * <p>
+ * {@code EmployeeManager.serializeEmployeeData} and {@code deserializeEmployeeData} always use the application's data
+ * file, so these benchmarks call what they delegate to on a temporary file instead:
+ * saving writes the records with {@link EmployeeDataFile} or {@link MappedEmployeeStore}; loading reads them back and
+ * creates the employee list the way the manager does, eagerly for the compact layout and lazily for the mapped one
+ * and for {@link OffHeapEmployeeStore}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PersistenceBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int employees;
+
+    @Param({"compact", "mapped", "offheap"})
+    public String layout;
+
+    private List<EmployeeRecord> records;
+    private Path directory;
+    private Path saveFile;
+    private Path loadFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        records = Arrays.asList(Rosters.records(employees));
+        directory = Files.createTempDirectory("hrpayroll-bench");
+        saveFile = directory.resolve("save.data");
+        loadFile = directory.resolve("load.data");
+        write(loadFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public Path serializeEmployeeData() throws IOException {
+        write(saveFile);
+        return saveFile;
+    }
+
+    @Benchmark
+    public List<Employee> deserializeEmployeeData() throws IOException {
+        if (layout.equals("mapped")) {
+            LazyEmployeeList list = new LazyEmployeeList();
+            list.load(MappedEmployeeStore.open(loadFile));
+            return list;
+        }
+        if (layout.equals("offheap")) {
+            LazyEmployeeList list = new LazyEmployeeList();
+            list.load(OffHeapEmployeeStore.read(loadFile));
+            return list;
+        }
+        List<EmployeeRecord> loaded = EmployeeDataFile.read(loadFile);
+        List<Employee> list = new ArrayList<>(loaded.size());
+        for (EmployeeRecord record : loaded) {
+            list.add(new Employee(record));
+        }
+        return list;
+    }
+
+    private void write(Path path) throws IOException {
+        if (layout.equals("mapped")) {
+            MappedEmployeeStore.write(path, records);
+        } else {
+            EmployeeDataFile.write(path, records);
+        }
+    }
+}
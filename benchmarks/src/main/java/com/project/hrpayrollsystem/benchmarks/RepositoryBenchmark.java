@@ -0,0 +1,110 @@
+package com.project.hrpayrollsystem.benchmarks;
+
+import com.project.hrpayrollsystem.EmployeeRecord;
+import com.project.hrpayrollsystem.EmployeeRepository;
+import com.project.hrpayrollsystem.HeapEmployeeStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks three threads changing employees while a fourth takes a point-in-time copy of the roster and totals it,
+ * as the screens and an importer do while a pay run is exported.
+ * The striped group uses {@link EmployeeRepository}; the single-lock group keeps the roster in one list behind one lock
+ * and copies the whole list for the pay run, which is what confining the roster to one thread amounts to.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class RepositoryBenchmark {
+
+    @Param({"100000"})
+    public int employees;
+
+    private EmployeeRecord[] records;
+    private EmployeeRepository repository;
+    private List<EmployeeRecord> lockedList;
+
+    @Setup
+    public void setUp() {
+        records = Rosters.records(employees);
+        int[] ids = new int[employees];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = records[i].getId();
+        }
+        repository = new EmployeeRepository((previous, current) -> { });
+        repository.load(new HeapEmployeeStore(Arrays.asList(records)), ids, new HashMap<>());
+        lockedList = new ArrayList<>(Arrays.asList(records));
+    }
+
+    @Benchmark
+    @Group("striped")
+    @GroupThreads(3)
+    public EmployeeRecord stripedUpdate() {
+        return repository.put(changedRecord());
+    }
+
+    @Benchmark
+    @Group("striped")
+    @GroupThreads(1)
+    public long stripedPayRun() {
+        return totalWages(repository.snapshot());
+    }
+
+    @Benchmark
+    @Group("singleLock")
+    @GroupThreads(3)
+    public EmployeeRecord singleLockUpdate() {
+        EmployeeRecord record = changedRecord();
+        synchronized (lockedList) {
+            return lockedList.set(record.getId() - 1, record);
+        }
+    }
+
+    @Benchmark
+    @Group("singleLock")
+    @GroupThreads(1)
+    public long singleLockPayRun() {
+        List<EmployeeRecord> copy;
+        synchronized (lockedList) {
+            copy = new ArrayList<>(lockedList);
+        }
+        return totalWages(copy);
+    }
+
+    /**
+     * Returns one of the employees with a new bonus.
+     */
+    private EmployeeRecord changedRecord() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return records[random.nextInt(records.length)].withBonus(random.nextInt(1_000_000));
+    }
+
+    private static long totalWages(List<EmployeeRecord> roster) {
+        long total = 0;
+        for (EmployeeRecord record : roster) {
+            total += record.getWageCents();
+        }
+        return total;
+    }
+}
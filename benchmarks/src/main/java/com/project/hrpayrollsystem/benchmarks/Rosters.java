@@ -0,0 +1,48 @@
+package com.project.hrpayrollsystem.benchmarks;
+
+import com.project.hrpayrollsystem.EmployeeRecord;
+
+import java.util.Random;
+
+/**
+ * Generates reproducible rosters for the benchmarks, with the application's departments and bonus options
+ * and a spread of wages and hours that covers all tax brackets.
+ */
+final class Rosters {
+
+    private static final String[] DEPARTMENTS = {
+            "Development Team", "Accounting", "Human Resources (HR)", "Marketing", "Sales",
+            "Information Technology (IT)", "Quality Assurance (QA)", "Project Management", "Research and Development (R&D)"
+    };
+    private static final long[] BONUS_CENTS = {0, 100_000, 500_000, 1_000_000};
+
+    private Rosters() {
+    }
+
+    static EmployeeRecord[] records(int count) {
+        Random random = new Random(42);
+        EmployeeRecord[] records = new EmployeeRecord[count];
+        for (int i = 0; i < count; i++) {
+            records[i] = new EmployeeRecord(i + 1, "First" + random.nextInt(5000), "Last" + random.nextInt(20000),
+                    DEPARTMENTS[random.nextInt(DEPARTMENTS.length)],
+                    1_500 + random.nextInt(10_000), 1_000 + random.nextInt(300_000),
+                    BONUS_CENTS[random.nextInt(BONUS_CENTS.length)]);
+        }
+        return records;
+    }
+
+    /**
+     * Generates the pay figures of a roster without the records, as columns of {wage cents, hours hundredths,
+     * bonus cents}, for benchmarks over more employees than fit in memory as records.
+     */
+    static long[][] payColumns(int count) {
+        Random random = new Random(42);
+        long[][] columns = new long[3][count];
+        for (int i = 0; i < count; i++) {
+            columns[0][i] = 1_500 + random.nextInt(10_000);
+            columns[1][i] = 1_000 + random.nextInt(300_000);
+            columns[2][i] = BONUS_CENTS[random.nextInt(BONUS_CENTS.length)];
+        }
+        return columns;
+    }
+}
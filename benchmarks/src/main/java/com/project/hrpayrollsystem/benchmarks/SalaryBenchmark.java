@@ -0,0 +1,101 @@
+package com.project.hrpayrollsystem.benchmarks;
+
+import com.project.hrpayrollsystem.EmployeeRecord;
+import com.project.hrpayrollsystem.PayResult;
+import com.project.hrpayrollsystem.PayrollEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the salary path the payroll screen goes through for every selected employee:
+ * total salary, tax rate, deductions and bonus lookup, and the full calculation that combines them.
+ * Each call works on the next employee of a fixed random roster, so the tax brackets are not perfectly predictable.
+ * The roster fits in the pay result cache, so {@code calculate} finds every employee there, while
+ * {@code calculateEdited} changes the hours of every employee on each pass over the roster, so every call misses.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SalaryBenchmark {
+
+    private static final String[] BONUSES = {"None", "$1000", "$5000", "$10000"};
+
+    private EmployeeRecord[] records;
+    // The same roster with one more hour each, to alternate with the original one
+    private EmployeeRecord[] edited;
+    private long[] salaries;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        records = Rosters.records(1024);
+        salaries = new long[records.length];
+        for (int i = 0; i < records.length; i++) {
+            salaries[i] = PayrollEngine.calculateTotalSalaryCents(records[i]);
+        }
+        edited = new EmployeeRecord[records.length];
+        for (int i = 0; i < records.length; i++) {
+            edited[i] = records[i].withPay(records[i].getWageCents(), records[i].getHoursHundredths() + 100);
+        }
+    }
+
+    private int nextIndex() {
+        next = (next + 1) & (records.length - 1);
+        return next;
+    }
+
+    @Benchmark
+    public long calculateTotalSalary() {
+        return PayrollEngine.calculateTotalSalaryCents(records[nextIndex()]);
+    }
+
+    @Benchmark
+    public double getTaxRate() {
+        return PayrollEngine.getTaxRate(salaries[nextIndex()]);
+    }
+
+    @Benchmark
+    public long getTaxCents() {
+        return PayrollEngine.getTaxCents(salaries[nextIndex()]);
+    }
+
+    @Benchmark
+    public long getDeductions() {
+        return PayrollEngine.getDeductionCents(salaries[nextIndex()]);
+    }
+
+    @Benchmark
+    public long getBonusAmount() {
+        return PayrollEngine.getBonusCents(BONUSES[nextIndex() & 3]);
+    }
+
+    @Benchmark
+    public PayResult calculate() {
+        return PayrollEngine.calculate(records[nextIndex()]);
+    }
+
+    @Benchmark
+    public PayResult calculateEdited() {
+        int index = nextIndex();
+        // Switches to the other roster at the start of each pass
+        if (index == 0) {
+            EmployeeRecord[] previous = records;
+            records = edited;
+            edited = previous;
+        }
+        return PayrollEngine.calculate(records[index]);
+    }
+}
@@ -0,0 +1,84 @@
+package com.project.hrpayrollsystem.benchmarks;
+
+import com.project.hrpayrollsystem.EmployeeRecord;
+import com.project.hrpayrollsystem.EmployeeRepository;
+import com.project.hrpayrollsystem.HeapEmployeeStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks taking a pay-period snapshot of the roster after an employee changed, as happens between pay runs.
+ * The shared snapshot is {@link EmployeeRepository#snapshot()}, which copies the references to its chunks of rows and
+ * then copies the one chunk the change touches; the full copy copies every record reference, as the repository
+ * did before. {@code gc.alloc.rate.norm} is the memory a snapshot costs on top of the roster.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SnapshotBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int employees;
+
+    private EmployeeRecord[] records;
+    private EmployeeRepository repository;
+    private List<EmployeeRecord> list;
+
+    @Setup
+    public void setUp() {
+        records = Rosters.records(employees);
+        int[] ids = new int[employees];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = records[i].getId();
+        }
+        repository = new EmployeeRepository((previous, current) -> { });
+        repository.load(new HeapEmployeeStore(Arrays.asList(records)), ids, new HashMap<>());
+        list = new ArrayList<>(Arrays.asList(records));
+        // Some employees changed since the data file was written
+        for (int i = 0; i < 1000; i++) {
+            EmployeeRecord record = changedRecord();
+            repository.put(record);
+            list.set(record.getId() - 1, record);
+        }
+    }
+
+    @Benchmark
+    public List<EmployeeRecord> sharedSnapshot() {
+        repository.put(changedRecord());
+        return repository.snapshot();
+    }
+
+    @Benchmark
+    public List<EmployeeRecord> fullCopy() {
+        EmployeeRecord record = changedRecord();
+        list.set(record.getId() - 1, record);
+        return new ArrayList<>(list);
+    }
+
+    /**
+     * Returns one of the employees with a new bonus.
+     */
+    private EmployeeRecord changedRecord() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return records[random.nextInt(records.length)].withBonus(random.nextInt(1_000_000));
+    }
+}
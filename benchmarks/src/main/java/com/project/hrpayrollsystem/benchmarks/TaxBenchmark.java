@@ -0,0 +1,134 @@
+package com.project.hrpayrollsystem.benchmarks;
+
+import com.project.hrpayrollsystem.EmployeeRecord;
+import com.project.hrpayrollsystem.FixedPoint;
+import com.project.hrpayrollsystem.PayrollEngine;
+import com.project.hrpayrollsystem.TaxTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the compiled tax tables against the if-chain the payroll used before tax tables were configurable.
+ * The flat table has the same three brackets as the if-chain; the marginal table has the 24 brackets
+ * of the progressive table in the tax tables file. Salaries come from a fixed random roster as in {@link SalaryBenchmark}.
+ * The single-salary benchmarks measure the latency of one lookup, as on the payroll screen; the roster benchmarks
+ * tax the whole roster in a loop, as a pay run does, where the table arrays stay in registers and cache.
+ * The tables work in cents, the if-chain in {@code double} dollars as it did.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaxBenchmark {
+
+    // Lower bounds in cents and rates in parts per million
+    private static final long[] PROGRESSIVE_BOUNDS = {
+            0, 1_200_000, 2_500_000, 4_000_000, 5_500_000, 7_000_000, 8_500_000, 10_000_000, 12_000_000, 14_000_000,
+            16_000_000, 18_000_000, 20_000_000, 23_000_000, 26_000_000, 30_000_000, 35_000_000, 40_000_000,
+            50_000_000, 60_000_000, 75_000_000, 100_000_000, 150_000_000, 200_000_000
+    };
+    private static final long[] PROGRESSIVE_RATES = {
+            0, 100_000, 120_000, 150_000, 180_000, 200_000, 220_000, 240_000, 260_000, 280_000, 300_000, 320_000,
+            330_000, 340_000, 350_000, 360_000, 370_000, 380_000, 390_000, 400_000, 410_000, 420_000, 430_000, 450_000
+    };
+
+    private TaxTable flat;
+    private TaxTable marginal;
+    private double[] salaries;
+    private long[] salaryCents;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        flat = new TaxTable("standard", TaxTable.Type.FLAT,
+                new long[]{0, 5_000_000, 10_000_000}, new long[]{100_000, 200_000, 300_000});
+        marginal = new TaxTable("progressive", TaxTable.Type.MARGINAL, PROGRESSIVE_BOUNDS, PROGRESSIVE_RATES);
+        EmployeeRecord[] records = Rosters.records(1024);
+        salaries = new double[records.length];
+        salaryCents = new long[records.length];
+        for (int i = 0; i < records.length; i++) {
+            salaryCents[i] = PayrollEngine.calculateTotalSalaryCents(records[i]);
+            salaries[i] = FixedPoint.toDouble(salaryCents[i]);
+        }
+    }
+
+    private int nextIndex() {
+        next = (next + 1) & (salaries.length - 1);
+        return next;
+    }
+
+    /**
+     * The tax rate lookup as it was hard-coded in the payroll engine.
+     */
+    private static double ifChainRate(double totalSalary) {
+        if (totalSalary <= 50000) {
+            return 0.10;
+        } else if (totalSalary <= 100000) {
+            return 0.20;
+        } else {
+            return 0.30;
+        }
+    }
+
+    @Benchmark
+    public double ifChainTaxes() {
+        double salary = salaries[nextIndex()];
+        return salary * ifChainRate(salary);
+    }
+
+    @Benchmark
+    public long flatTableTaxes() {
+        return flat.taxOn(salaryCents[nextIndex()], RoundingMode.HALF_UP);
+    }
+
+    @Benchmark
+    public long marginalTableTaxes() {
+        return marginal.taxOn(salaryCents[nextIndex()], RoundingMode.HALF_UP);
+    }
+
+    @Benchmark
+    public double marginalTableRate() {
+        long salary = salaryCents[nextIndex()];
+        return marginal.rateOn(salary, marginal.taxOn(salary, RoundingMode.HALF_UP));
+    }
+
+    @Benchmark
+    public double ifChainRoster() {
+        double total = 0;
+        for (double salary : salaries) {
+            total += salary * ifChainRate(salary);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long flatTableRoster() {
+        long total = 0;
+        for (long salary : salaryCents) {
+            total = Math.addExact(total, flat.taxOn(salary, RoundingMode.HALF_UP));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long marginalTableRoster() {
+        long total = 0;
+        for (long salary : salaryCents) {
+            total = Math.addExact(total, marginal.taxOn(salary, RoundingMode.HALF_UP));
+        }
+        return total;
+    }
+}
@@ -2,23 +2,16 @@ package com.project.hrpayrollsystem;
 
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.TextField;
-import javafx.scene.image.Image;
 import javafx.stage.Stage;
 
-import java.io.IOException;
-import java.util.Objects;
-
 /**
  * The controller class for adding an employee.
  * This class handles the user interface and logic for adding a new employee to the system.
  */
-public class AddEmployeeController {
+public class AddEmployeeController implements Navigator.Refreshable {
     @FXML
     public Button backButton;
     @FXML
@@ -32,6 +25,18 @@ public class AddEmployeeController {
     @FXML
     private ComboBox<String> departmentComboBox;
 
+    /**
+     * Clears the input fields each time the screen is shown.
+     */
+    @Override
+    public void onShow() {
+        firstNameField.clear();
+        lastNameField.clear();
+        departmentComboBox.getSelectionModel().clearSelection();
+        wageField.clear();
+        hoursField.clear();
+    }
+
     /**
      * Saves the employee information entered by the user.
      * Validates the input fields and adds the employee to the department and employee list if all fields are valid.
@@ -51,16 +56,16 @@ public class AddEmployeeController {
                 // Try to convert the salary text to a double
                 double wage = Double.parseDouble(wageText);
                 double hours = Double.parseDouble(hoursText);
-                // Cant be a negative number
-                if (hours < 0 || wage < 0) {
+                // Cant be a negative number, nor so large that payroll totals could overflow
+                if (hours < 0 || wage < 0
+                        || !EmployeeRecord.isValidPay(FixedPoint.toHundredths(wage), FixedPoint.toHundredths(hours), 0)) {
                     throw new NumberFormatException();
                 }
 
                 // Create a new employee
                 Employee newEmployee = new Employee(firstName, lastName, departmentName, wage, hours);
-                EmployeeManager.addEmployeeToDepartment(newEmployee, departmentName); // Add employee to the department
-                // Add the new employee to the list
-                EmployeeManager.getEmployeeList().add(newEmployee);
+                // Add the new employee to the list and the department
+                EmployeeManager.addEmployee(newEmployee);
 
                 // Clear the input fields after adding employee
                 firstNameField.clear();
@@ -71,7 +76,9 @@ public class AddEmployeeController {
                 Utilities.showAlert("Alert", "Successfully added Employee");
             } catch (NumberFormatException e) {
                 // Handle the case where the salary is not a valid double
-                Utilities.showAlert("Alert", "Please enter a valid positive numeric value.");
+                Utilities.showAlert("Alert", "Please enter a valid positive numeric value, up to $"
+                        + Money.format(EmployeeRecord.MAX_WAGE_CENTS) + " an hour and "
+                        + EmployeeRecord.MAX_HOURS_HUNDREDTHS / 100 + " hours.");
             }
         } else {
             // Display an alert or message indicating that all fields are required
@@ -82,29 +89,10 @@ public class AddEmployeeController {
     /**
      * Navigates back to the Employee Management page.
      * This method is called when the "Go Back" button is clicked.
-     * It loads the Employee Management FXML, sets the stage title,
-     * and creates a new scene for the Employee Management page.
-     * 
      * @param actionEvent the action event triggered by the button click
      */
     public void goBack(ActionEvent actionEvent) {
-        try {
-            // Load the Employee Management FXML
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/project/hrpayrollsystem/fxml/employeeManagement.fxml"));
-            Parent employeeManagementRoot = loader.load();
-
-            Stage stage = (Stage) backButton.getScene().getWindow();
-            Image newIcon = new Image(Objects.requireNonNull(getClass().getResourceAsStream("/com/project/hrpayrollsystem/images/employees.png")));
-            stage.getIcons().clear();
-            stage.getIcons().add(newIcon);
-            stage.setTitle("HR Manager and Payroll System - Employee Management");
-            // Create a new scene for the Employee Management page
-            Scene employeeManagementScene = new Scene(employeeManagementRoot);
-            // Get the stage from the button and set the new scene
-            stage.setScene(employeeManagementScene);
-
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        Stage stage = (Stage) backButton.getScene().getWindow();
+        Navigator.show(stage, Navigator.Screen.EMPLOYEE_MANAGEMENT);
     }
 }
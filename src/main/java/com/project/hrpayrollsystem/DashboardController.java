@@ -0,0 +1,175 @@
+package com.project.hrpayrollsystem;
+
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.fxml.FXML;
+import javafx.fxml.Initializable;
+import javafx.scene.chart.BarChart;
+import javafx.scene.chart.PieChart;
+import javafx.scene.chart.XYChart;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ResourceBundle;
+
+/**
+ * The controller class for the payroll dashboard, which shows the payroll of the whole company: the total cost of
+ * each department, how the taxes are spread over the departments and what each department spends on bonuses.
+ * <p>
+ * The figures come from the running totals the departments and the company keep as employees change, so drawing the
+ * dashboard never goes over the employees. While the dashboard is shown it checks every {@link #REDRAW_INTERVAL}
+ * whether any employee changed and only then redraws, so a bulk import of many employees is drawn a few times over
+ * its course rather than once per employee. Each department keeps the same chart points, whose values are updated
+ * in place.
+ */
+public class DashboardController implements Initializable, Navigator.Refreshable {
+
+    // The charts are drawn again at most this often, however many employees change in between
+    private static final Duration REDRAW_INTERVAL = Duration.millis(500);
+    // The employees of departments that are not predefined, such as the departments of an old data file
+    private static final String OTHER_DEPARTMENTS = "Other";
+
+    @FXML
+    private Button backButton;
+    @FXML
+    private Label headcountLabel;
+    @FXML
+    private Label totalSalaryLabel;
+    @FXML
+    private Label totalTaxLabel;
+    @FXML
+    private Label totalDeductionsLabel;
+    @FXML
+    private Label totalBonusLabel;
+    @FXML
+    private Label totalNetPayLabel;
+    @FXML
+    private BarChart<Number, String> costChart;
+    @FXML
+    private PieChart taxChart;
+    @FXML
+    private BarChart<Number, String> bonusChart;
+
+    private final Timeline redraws = new Timeline(new KeyFrame(REDRAW_INTERVAL, event -> redrawIfChanged()));
+    // The totals version the dashboard shows, or -1 before it is first drawn
+    private long drawnVersion = -1;
+    // The chart points of each predefined department in code order, followed by those of the other departments
+    private final List<XYChart.Data<Number, String>> costBars = new ArrayList<>();
+    private final List<PieChart.Data> taxSlices = new ArrayList<>();
+    private final List<XYChart.Data<Number, String>> bonusBars = new ArrayList<>();
+
+    /**
+     * Initializes the DashboardController.
+     * Creates the chart points of every department once; later redraws only change their values.
+     *
+     * @param url            The location used to resolve relative paths for the root object, or null if the location is not known.
+     * @param resourceBundle The resources used to localize the root object, or null if the root object was not localized.
+     */
+    @Override
+    public void initialize(URL url, ResourceBundle resourceBundle) {
+        XYChart.Series<Number, String> costs = new XYChart.Series<>();
+        XYChart.Series<Number, String> bonuses = new XYChart.Series<>();
+        List<String> names = new ArrayList<>(EmployeeCodes.DEPARTMENTS);
+        names.add(OTHER_DEPARTMENTS);
+        for (String name : names) {
+            costBars.add(new XYChart.Data<>(0, name));
+            taxSlices.add(new PieChart.Data(name, 0));
+            bonusBars.add(new XYChart.Data<>(0, name));
+        }
+        costs.getData().setAll(costBars);
+        bonuses.getData().setAll(bonusBars);
+        costChart.getData().add(costs);
+        bonusChart.getData().add(bonuses);
+
+        // Redrawing replaces the values at once instead of starting an animation for every point
+        costChart.setAnimated(false);
+        taxChart.setAnimated(false);
+        bonusChart.setAnimated(false);
+
+        redraws.setCycleCount(Animation.INDEFINITE);
+    }
+
+    /**
+     * Draws the current totals and keeps them up to date for as long as the dashboard is shown.
+     */
+    @Override
+    public void onShow() {
+        drawnVersion = -1;
+        redrawIfChanged();
+        redraws.play();
+    }
+
+    /**
+     * Draws the totals again if any employee changed since they were last drawn.
+     */
+    private void redrawIfChanged() {
+        // Read before the totals, so a change made while drawing is drawn by the next check
+        long version = EmployeeManager.getTotalsVersion();
+        if (version == drawnVersion) {
+            return;
+        }
+        drawnVersion = version;
+
+        PayrollTotals company = EmployeeManager.getCompanyTotals();
+        headcountLabel.setText("Employees: " + company.getHeadcount());
+        totalSalaryLabel.setText("Total Salary: $" + Money.format(company.getTotalSalaryCents()));
+        totalTaxLabel.setText("Taxes: $" + Money.format(company.getTotalTaxCents()));
+        totalDeductionsLabel.setText("Deductions: $" + Money.format(company.getTotalDeductionCents()));
+        totalBonusLabel.setText("Bonuses: $" + Money.format(company.getTotalBonusCents()));
+        totalNetPayLabel.setText("Net Pay: $" + Money.format(company.getTotalNetPayCents()));
+
+        // What the predefined departments leave of the company totals belongs to the other departments
+        long otherSalaryCents = company.getTotalSalaryCents();
+        long otherTaxCents = company.getTotalTaxCents();
+        long otherBonusCents = company.getTotalBonusCents();
+        List<Department> departments = EmployeeManager.getDepartments();
+        for (int i = 0; i < departments.size(); i++) {
+            PayrollTotals totals = departments.get(i).getTotals();
+            show(i, totals.getTotalSalaryCents(), totals.getTotalTaxCents(), totals.getTotalBonusCents());
+            otherSalaryCents = Money.subtract(otherSalaryCents, totals.getTotalSalaryCents());
+            otherTaxCents = Money.subtract(otherTaxCents, totals.getTotalTaxCents());
+            otherBonusCents = Money.subtract(otherBonusCents, totals.getTotalBonusCents());
+        }
+        show(departments.size(), otherSalaryCents, otherTaxCents, otherBonusCents);
+    }
+
+    /**
+     * Sets the chart points of one department to its totals. Departments without taxes are left out of the tax
+     * chart, so it has no empty slices.
+     */
+    private void show(int department, long salaryCents, long taxCents, long bonusCents) {
+        costBars.get(department).setXValue(Money.toDollars(salaryCents));
+        bonusBars.get(department).setXValue(Money.toDollars(bonusCents));
+        PieChart.Data slice = taxSlices.get(department);
+        slice.setPieValue(Money.toDollars(taxCents));
+        if (taxCents == 0) {
+            taxChart.getData().remove(slice);
+        } else if (!taxChart.getData().contains(slice)) {
+            // In department order, after the slices of the departments before it
+            int position = 0;
+            for (int i = 0; i < department; i++) {
+                if (taxChart.getData().contains(taxSlices.get(i))) {
+                    position++;
+                }
+            }
+            taxChart.getData().add(position, slice);
+        }
+    }
+
+    /**
+     * Stops following the totals and navigates back to the main menu.
+     */
+    @FXML
+    private void goBack() {
+        redraws.stop();
+        // Get the current stage from any control in the scene
+        Stage stage = (Stage) backButton.getScene().getWindow();
+        Navigator.show(stage, Navigator.Screen.MAIN_MENU);
+    }
+}
@@ -1,15 +1,24 @@
 package com.project.hrpayrollsystem;
 
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Represents a department in the HR payroll system.
+ * Members are kept by employee ID in a hash set, so adding and removing an employee takes constant time.
+ * The department also keeps running {@link PayrollTotals} of its members,
+ * which are adjusted by each member's contribution as members are added, changed and removed,
+ * so reading them never requires going over the employees.
+ * <p>
+ * Employees are added and removed from any thread. The members are a concurrent set, which searches may go over while
+ * it changes, and the totals are adjusted and read under the department's lock.
  */
 public class Department implements Serializable {
     private final String name;
-    private final List<Employee> employees;
+    private final Set<Integer> employeeIds;
+    private final PayrollTotals totals = new PayrollTotals();
 
     /**
      * Constructs a department with the specified name.
@@ -18,25 +27,99 @@ public class Department implements Serializable {
      */
     public Department(String name) {
         this.name = name;
-        this.employees = new ArrayList<>();
+        this.employeeIds = ConcurrentHashMap.newKeySet();
+    }
+
+    public String getName() { return name; }
+    public Set<Integer> getEmployeeIds() { return Collections.unmodifiableSet(employeeIds); }
+    public int getHeadcount() { return employeeIds.size(); }
+    public long getTotalHoursHundredths() { return totals.getTotalHoursHundredths(); }
+    public long getTotalGrossCents() { return totals.getTotalSalaryCents(); }
+    public long getTotalTaxCents() { return totals.getTotalTaxCents(); }
+    public long getTotalDeductionCents() { return totals.getTotalDeductionCents(); }
+    public long getTotalBonusCents() { return totals.getTotalBonusCents(); }
+
+    /**
+     * Returns a copy of the payroll totals of the department, so several figures can be read as they were at one
+     * moment.
+     *
+     * @return the department totals
+     */
+    public PayrollTotals getTotals() {
+        return totals.copy();
+    }
+
+    /**
+     * Adds an employee to the department and its figures to the department totals.
+     * Adding an employee that is already a member has no effect.
+     *
+     * @param record the record of the employee to be added
+     */
+    public void addEmployee(EmployeeRecord record) {
+        addEmployee(record.getId(), PayrollTotals.Contribution.of(record));
+    }
+
+    /**
+     * Adds an employee to the department from its ID and pay figures.
+     *
+     * @param id              the employee ID
+     * @param wageCents       the hourly wage in cents
+     * @param hoursHundredths the hours worked in hundredths of an hour
+     * @param bonusCents      the bonus in cents
+     */
+    void addEmployee(int id, long wageCents, long hoursHundredths, long bonusCents) {
+        addEmployee(id, PayrollTotals.Contribution.of(wageCents, hoursHundredths, bonusCents));
+    }
+
+    /**
+     * Adds an employee to the department with their contribution to the totals, calculated beforehand.
+     * The totals change first, so a member is never left out of them.
+     *
+     * @param id  the employee ID
+     * @param pay the contribution of the employee
+     */
+    synchronized void addEmployee(int id, PayrollTotals.Contribution pay) {
+        if (!employeeIds.contains(id)) {
+            totals.replace(null, pay);
+            employeeIds.add(id);
+        }
+    }
+
+    /**
+     * Removes an employee from the department and its figures from the department totals.
+     * The record must be the one the employee was added with, so exactly what was added is taken off again.
+     *
+     * @param record the record the employee was added with
+     */
+    public void removeEmployee(EmployeeRecord record) {
+        removeEmployee(record.getId(), PayrollTotals.Contribution.of(record));
     }
 
     /**
-     * Adds an employee to the department.
+     * Removes an employee from the department with the contribution they were added with.
      *
-     * @param employee the employee to be added
+     * @param id  the employee ID
+     * @param pay the contribution of the employee
      */
-    public void addEmployee(Employee employee) {
-        employees.add(employee);
+    synchronized void removeEmployee(int id, PayrollTotals.Contribution pay) {
+        if (employeeIds.contains(id)) {
+            totals.replace(pay, null);
+            employeeIds.remove(id);
+        }
     }
 
     /**
-     * Removes an employee from the department.
+     * Replaces the contribution of a member by that of their new record, when the employee changed but stays in the
+     * department. An employee who is not a member is left out.
      *
-     * @param employee the employee to be removed
+     * @param id       the employee ID
+     * @param previous the contribution the employee was added with
+     * @param current  the contribution of the new record
      */
-    public void removeEmployee(Employee employee) {
-        employees.remove(employee);
+    synchronized void updateEmployee(int id, PayrollTotals.Contribution previous, PayrollTotals.Contribution current) {
+        if (employeeIds.contains(id)) {
+            totals.replace(previous, current);
+        }
     }
 
     /**
@@ -46,6 +129,6 @@ public class Department implements Serializable {
      */
     @Override
     public String toString() {
-        return name + " " + employees;
+        return name + " " + employeeIds;
     }
 }
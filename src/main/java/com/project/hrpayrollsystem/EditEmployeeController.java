@@ -2,18 +2,11 @@ package com.project.hrpayrollsystem;
 
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.TextField;
-import javafx.scene.image.Image;
 import javafx.stage.Stage;
 
-import java.io.IOException;
-import java.util.Objects;
-
 /**
  * The controller class for editing employee information.
  */
@@ -38,24 +31,8 @@ public class EditEmployeeController {
      * @param actionEvent The event triggered by the "Go Back" button.
      */
     public void goBack(ActionEvent actionEvent) {
-        try {
-            // Load the Employee Management FXML
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/project/hrpayrollsystem/fxml/employeeManagement.fxml"));
-            Parent employeeManagementRoot = loader.load();
-
-            Stage stage = (Stage) backButton.getScene().getWindow();
-            Image newIcon = new Image(Objects.requireNonNull(getClass().getResourceAsStream("/com/project/hrpayrollsystem/images/employees.png")));
-            stage.getIcons().clear();
-            stage.getIcons().add(newIcon);
-            stage.setTitle("HR Manager and Payroll System - Employee Management");
-            // Create a new scene for the Employee Management page
-            Scene employeeManagementScene = new Scene(employeeManagementRoot);
-            // Get the stage from the button and set the new scene
-            stage.setScene(employeeManagementScene);
-
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        Stage stage = (Stage) backButton.getScene().getWindow();
+        Navigator.show(stage, Navigator.Screen.EMPLOYEE_MANAGEMENT);
     }
 
     /**
@@ -86,26 +63,26 @@ public class EditEmployeeController {
             // Update the employee's information
             if (!firstNameField.getText().isEmpty() && !lastNameField.getText().isEmpty() && departmentComboBox.getValue() != null && !wageField.getText().isEmpty() && !hoursField.getText().isEmpty()) {
                 try {
-                    double tryWage = Double.parseDouble(wageField.getText()); // If this errors then it's not numeric
-                    double tryHours = Double.parseDouble(hoursField.getText()); // If this errors then it's not numeric
-                    // Cant be a negative number
-                    if (tryHours < 0 || tryWage < 0) {
+                    double wage = Double.parseDouble(wageField.getText()); // If this errors then it's not numeric
+                    double hours = Double.parseDouble(hoursField.getText()); // If this errors then it's not numeric
+                    // Cant be a negative number, nor so large that payroll totals could overflow
+                    if (hours < 0 || wage < 0
+                            || !EmployeeRecord.isValidPay(FixedPoint.toHundredths(wage), FixedPoint.toHundredths(hours), 0)) {
                         throw new NumberFormatException();
                     }
 
-                    employee.firstNameProperty().set(firstNameField.getText());
-                    employee.lastNameProperty().set(lastNameField.getText());
-                    employee.departmentProperty().set((String) departmentComboBox.getValue());
-                    employee.wageProperty().set("$" + wageField.getText());
-                    employee.hoursProperty().set(hoursField.getText());
-                    // Remove the employee from the old department and add it to the new one
-                    EmployeeManager.removeEmployeeFromAllDepartments(employee);
-                    EmployeeManager.addEmployeeToDepartment(employee, (String) departmentComboBox.getValue());
+                    employee.setName(firstNameField.getText(), lastNameField.getText());
+                    employee.setDepartment((String) departmentComboBox.getValue());
+                    employee.setPay(wage, hours);
+                    // Save the change; this also moves the employee from the old department to the new one
+                    EmployeeManager.updateEmployee(employee);
 
                     Utilities.showAlert("Alert", "Successfully edited Employee");
                 } catch (NumberFormatException e) {
                     // Handle the case where the wage is not a valid double
-                    Utilities.showAlert("Alert", "Please enter a valid positive numeric value.");
+                    Utilities.showAlert("Alert", "Please enter a valid positive numeric value, up to $"
+                            + Money.format(EmployeeRecord.MAX_WAGE_CENTS) + " an hour and "
+                            + EmployeeRecord.MAX_HOURS_HUNDREDTHS / 100 + " hours.");
                 }
             } else {
                 Utilities.showAlert("Alert", "All fields are required to submit");
@@ -1,79 +1,180 @@
 package com.project.hrpayrollsystem;
 
-import javafx.beans.property.SimpleStringProperty;
-import javafx.beans.property.StringProperty;
+import javafx.beans.property.ReadOnlyStringProperty;
+import javafx.beans.property.ReadOnlyStringWrapper;
 
 import java.io.*;
 
 /**
  * The Employee class represents an employee in the HR payroll system.
- * It provides properties and methods to manage employee information.
+ * It is the JavaFX view of an {@link EmployeeRecord}: the record holds the typed data used by payroll,
+ * and the read-only string properties mirror it for the tables and combo boxes to bind to.
+ * All changes go through the setters, which parse input once and update the record and properties together.
  */
 public class Employee implements Serializable {
 
     private static final long serialVersionUID = 2L;
-    private static int id = 1;
+    // Shared by every way employees are created, so IDs stay unique whichever screen or import adds them
+    private static final EmployeeIdAllocator ID_ALLOCATOR = new EmployeeIdAllocator();
 
-    private transient StringProperty employeeID;
-    private transient StringProperty firstName;
-    private transient StringProperty lastName;
-    private transient StringProperty department;
-    private transient StringProperty wage;
-    private transient StringProperty hours;
-    private transient StringProperty bonus;
+    private transient EmployeeRecord record;
+    // Position of this employee in the LazyEmployeeList it was taken from, or -1; only a hint, checked against the ID
+    private transient int slot = -1;
+
+    private transient ReadOnlyStringWrapper employeeID;
+    private transient ReadOnlyStringWrapper firstName;
+    private transient ReadOnlyStringWrapper lastName;
+    private transient ReadOnlyStringWrapper department;
+    private transient ReadOnlyStringWrapper wage;
+    private transient ReadOnlyStringWrapper hours;
+    private transient ReadOnlyStringWrapper bonus;
 
     public Employee(String firstName, String lastName, String department, double wage, double hours) {
+        this(new EmployeeRecord(nextId(), firstName, lastName, department,
+                FixedPoint.toHundredths(wage), FixedPoint.toHundredths(hours), 0));
+    }
+
+    /**
+     * Constructs an employee view of an existing record.
+     *
+     * @param record the record to view
+     */
+    public Employee(EmployeeRecord record) {
         initializeProperties();
-        this.firstName.set(firstName);
-        this.lastName.set(lastName);
-        this.department.set(department);
-        this.wage.set("$" + Double.toString(wage));
-        this.hours.set(Double.toString(hours));
-        this.bonus.set("None");
-        this.employeeID.set(Integer.toString(id));
-        id++;
+        setRecord(record);
+    }
+
+    /**
+     * Makes sure IDs given to new employees are higher than the given ID, so they don't collide with loaded employees.
+     *
+     * @param maxId the highest ID in use
+     */
+    static void reserveIdsThrough(int maxId) {
+        ID_ALLOCATOR.reserveThrough(maxId);
+    }
+
+    /**
+     * Hands out the next unused employee ID.
+     *
+     * @return the new ID
+     */
+    static int nextId() {
+        return ID_ALLOCATOR.nextId();
+    }
+
+    /**
+     * Hands out a block of consecutive unused employee IDs, for adding many employees at once.
+     *
+     * @param count the number of IDs
+     * @return the first ID of the block
+     */
+    static int reserveIds(int count) {
+        return ID_ALLOCATOR.reserve(count);
+    }
+
+    /**
+     * Returns the highest employee ID handed out so far, to be saved with the employee data.
+     *
+     * @return the highest reserved ID
+     */
+    static int getReservedIdsThrough() {
+        return ID_ALLOCATOR.getReservedThrough();
     }
 
     private void initializeProperties() {
-        this.firstName = new SimpleStringProperty();
-        this.lastName = new SimpleStringProperty();
-        this.department = new SimpleStringProperty();
-        this.wage = new SimpleStringProperty();
-        this.hours = new SimpleStringProperty();
-        this.bonus = new SimpleStringProperty();
-        this.employeeID = new SimpleStringProperty();
-    }
-    // Since these are StringProperties, we can use the get() method to get the value of the property and set() to set the value of the property.
-    public StringProperty firstNameProperty() { return firstName; }
-    public StringProperty lastNameProperty() { return lastName; }
-    public StringProperty employeeIDProperty() { return employeeID; }
-    public StringProperty departmentProperty() { return department; }
-    public StringProperty wageProperty() { return wage; }
-    public StringProperty hoursProperty() { return hours; }
-    public StringProperty bonusProperty() { return bonus; }
+        this.firstName = new ReadOnlyStringWrapper();
+        this.lastName = new ReadOnlyStringWrapper();
+        this.department = new ReadOnlyStringWrapper();
+        this.wage = new ReadOnlyStringWrapper();
+        this.hours = new ReadOnlyStringWrapper();
+        this.bonus = new ReadOnlyStringWrapper();
+        this.employeeID = new ReadOnlyStringWrapper();
+    }
+
+    // The properties are read-only views of the record, use the setters below to change the employee.
+    public ReadOnlyStringProperty firstNameProperty() { return firstName.getReadOnlyProperty(); }
+    public ReadOnlyStringProperty lastNameProperty() { return lastName.getReadOnlyProperty(); }
+    public ReadOnlyStringProperty employeeIDProperty() { return employeeID.getReadOnlyProperty(); }
+    public ReadOnlyStringProperty departmentProperty() { return department.getReadOnlyProperty(); }
+    public ReadOnlyStringProperty wageProperty() { return wage.getReadOnlyProperty(); }
+    public ReadOnlyStringProperty hoursProperty() { return hours.getReadOnlyProperty(); }
+    public ReadOnlyStringProperty bonusProperty() { return bonus.getReadOnlyProperty(); }
 
     /**
-     * Writes the object's state to the specified ObjectOutputStream.
-     * This method is called by the serialization mechanism.
+     * Returns the typed record backing this employee.
      *
-     * @param out the ObjectOutputStream to write the object's state to
-     * @throws IOException if an I/O error occurs while writing the object
+     * @return the employee record
      */
-    private void writeObject(ObjectOutputStream out) throws IOException {
-        out.defaultWriteObject();
-        out.writeObject(firstName.get());
-        out.writeObject(lastName.get());
-        out.writeObject(employeeID.get());
-        out.writeObject(department.get());
-        out.writeObject(wage.get());
-        out.writeObject(hours.get());
-        out.writeObject(bonus.get());
+    public EmployeeRecord getRecord() {
+        return record;
+    }
+
+    /**
+     * Replaces the record backing this employee and refreshes the properties from it.
+     *
+     * @param record the new employee record
+     */
+    public void setRecord(EmployeeRecord record) {
+        this.record = record;
+        employeeID.set(Integer.toString(record.getId()));
+        firstName.set(record.getFirstName());
+        lastName.set(record.getLastName());
+        department.set(record.getDepartment());
+        wage.set("$" + FixedPoint.toDouble(record.getWageCents()));
+        hours.set(Double.toString(FixedPoint.toDouble(record.getHoursHundredths())));
+        bonus.set(bonusLabel(record.getBonusCents()));
+    }
+
+    int getSlot() {
+        return slot;
+    }
+
+    void setSlot(int slot) {
+        this.slot = slot;
+    }
+
+    public void setName(String firstName, String lastName) {
+        setRecord(record.withName(firstName, lastName));
+    }
+
+    public void setDepartment(String department) {
+        setRecord(record.withDepartment(department));
+    }
+
+    public void setPay(double wage, double hours) {
+        setRecord(record.withPay(FixedPoint.toHundredths(wage), FixedPoint.toHundredths(hours)));
+    }
+
+    /**
+     * Sets the bonus from one of the bonus options shown to the user, e.g. "None" or "$5000".
+     *
+     * @param bonus the bonus option
+     */
+    public void setBonus(String bonus) {
+        setRecord(record.withBonus(PayrollEngine.getBonusCents(bonus)));
+    }
+
+    /**
+     * Returns the bonus option shown to the user for a bonus amount.
+     *
+     * @param bonusCents the bonus in cents
+     * @return "None" when there is no bonus, otherwise the amount with a dollar sign
+     */
+    private static String bonusLabel(long bonusCents) {
+        if (bonusCents == 0) {
+            return "None";
+        }
+        if (bonusCents % FixedPoint.SCALE == 0) {
+            return "$" + bonusCents / FixedPoint.SCALE;
+        }
+        return "$" + FixedPoint.toDouble(bonusCents);
     }
 
     /**
      * Custom deserialization method for the Employee class.
-     * Reads the object from the input stream and initializes the properties of the Employee object.
-     * 
+     * Only used to migrate data files written with Java serialization, see {@link EmployeeDataFile}.
+     * Reads the object from the input stream, parses the stored text into a record and initializes the properties from it.
+     *
      * @param in the input stream from which the object is read
      * @throws IOException            if an I/O error occurs while reading the object
      * @throws ClassNotFoundException if the class of the serialized object cannot be found
@@ -81,13 +182,15 @@ public class Employee implements Serializable {
     private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
         in.defaultReadObject();
         initializeProperties();
-        firstName.set((String) in.readObject());
-        lastName.set((String) in.readObject());
-        employeeID.set((String) in.readObject());
-        department.set((String) in.readObject());
-        wage.set((String) in.readObject());
-        hours.set((String) in.readObject());
-        bonus.set((String) in.readObject());
+        slot = -1;
+        String firstName = (String) in.readObject();
+        String lastName = (String) in.readObject();
+        int employeeID = Integer.parseInt((String) in.readObject());
+        String department = (String) in.readObject();
+        long wageCents = FixedPoint.parseHundredths((String) in.readObject());
+        long hoursHundredths = FixedPoint.parseHundredths((String) in.readObject());
+        long bonusCents = PayrollEngine.getBonusCents((String) in.readObject());
+        setRecord(new EmployeeRecord(employeeID, firstName, lastName, department, wageCents, hoursHundredths, bonusCents));
     }
 
     @Override
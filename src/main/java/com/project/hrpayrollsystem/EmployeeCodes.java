@@ -0,0 +1,129 @@
+package com.project.hrpayrollsystem;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The shared dictionaries of the employee fields that only take a few values: the department and the bonus.
+ * <p>
+ * Records hold a small code into each dictionary rather than their own department string and bonus amount, so all
+ * employees of a department share one name and grouping employees by department compares integers. The codes of
+ * the predefined departments and bonus options are fixed; other values, such as the departments of an old data
+ * file, are added when first seen and keep their code until the application exits. Codes are only valid within the
+ * running application; the data file writes the values themselves in a table of its own.
+ * <p>
+ * Values are added under a lock and published as a new array, so looking a code up never locks.
+ */
+public final class EmployeeCodes {
+
+    /**
+     * The departments of the company, in the order of their codes.
+     */
+    public static final List<String> DEPARTMENTS = List.of(
+            "Development Team", "Accounting", "Human Resources (HR)", "Marketing", "Sales",
+            "Information Technology (IT)", "Quality Assurance (QA)", "Project Management", "Research and Development (R&D)");
+
+    /**
+     * The bonus options offered to the user, in cents, in the order of their codes: none, $1000, $5000 and $10000.
+     */
+    public static final List<Long> BONUS_CENTS = List.of(0L, 100_000L, 500_000L, 1_000_000L);
+
+    // Up to this many bonus amounts are found by comparing them all rather than through the map
+    private static final int SCANNED_BONUSES = 16;
+
+    private static final Map<String, Integer> departmentCodes = new ConcurrentHashMap<>();
+    private static volatile String[] departments = new String[0];
+    private static final Map<Long, Integer> bonusCodes = new ConcurrentHashMap<>();
+    private static volatile long[] bonuses = new long[0];
+
+    static {
+        DEPARTMENTS.forEach(EmployeeCodes::departmentCode);
+        BONUS_CENTS.forEach(EmployeeCodes::bonusCode);
+    }
+
+    private EmployeeCodes() {
+    }
+
+    /**
+     * Returns the code of a department, adding the department if it has none yet.
+     *
+     * @param department the department name
+     * @return the department code
+     */
+    public static int departmentCode(String department) {
+        Integer code = departmentCodes.get(department);
+        if (code != null) {
+            return code;
+        }
+        synchronized (departmentCodes) {
+            return departmentCodes.computeIfAbsent(department, name -> {
+                String[] grown = Arrays.copyOf(departments, departments.length + 1);
+                grown[departments.length] = name;
+                departments = grown;
+                return grown.length - 1;
+            });
+        }
+    }
+
+    /**
+     * Returns the department name of a code.
+     *
+     * @param code the department code
+     * @return the shared department name
+     */
+    public static String department(int code) {
+        return departments[code];
+    }
+
+    /**
+     * Returns the department names of all codes handed out so far, in the order of their codes.
+     *
+     * @return the department names
+     */
+    public static List<String> departments() {
+        return List.of(departments);
+    }
+
+    /**
+     * Returns the code of a bonus amount, adding the amount if it has none yet.
+     *
+     * @param bonusCents the bonus in cents
+     * @return the bonus code
+     */
+    public static int bonusCode(long bonusCents) {
+        long[] known = bonuses;
+        // There are usually only the bonus options, which are quicker to compare than to box and hash
+        if (known.length <= SCANNED_BONUSES) {
+            for (int code = 0; code < known.length; code++) {
+                if (known[code] == bonusCents) {
+                    return code;
+                }
+            }
+        } else {
+            Integer code = bonusCodes.get(bonusCents);
+            if (code != null) {
+                return code;
+            }
+        }
+        synchronized (bonusCodes) {
+            return bonusCodes.computeIfAbsent(bonusCents, amount -> {
+                long[] grown = Arrays.copyOf(bonuses, bonuses.length + 1);
+                grown[bonuses.length] = amount;
+                bonuses = grown;
+                return grown.length - 1;
+            });
+        }
+    }
+
+    /**
+     * Returns the bonus amount of a code.
+     *
+     * @param code the bonus code
+     * @return the bonus in cents
+     */
+    public static long bonusCents(int code) {
+        return bonuses[code];
+    }
+}
@@ -0,0 +1,435 @@
+package com.project.hrpayrollsystem;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Reads and writes the employee data file.
+ * <p>
+ * The file is a versioned binary format made of four sections:
+ * <ul>
+ *     <li>a fixed-size header with the magic number, version, string count, record count and the highest employee ID
+ *     handed out so far (see {@link EmployeeIdAllocator}),</li>
+ *     <li>a string table of length-prefixed UTF-8 strings, where every distinct string (e.g. a department name) is stored once,</li>
+ *     <li>a bonus table holding every distinct bonus amount once,</li>
+ *     <li>one record per employee holding its wage and hours, the string table indexes of its names and department
+ *     and the bonus table index of its bonus.</li>
+ * </ul>
+ * Lengths, indexes and numbers are written as variable-length integers, and employee IDs as the difference
+ * to the previous ID, so most fields take one or two bytes.
+ * All I/O goes through a {@link FileChannel} with a direct buffer. Files written by the old Java serialization
+ * are recognised by their stream header and converted to the new format the first time they are read.
+ * Files in the mapped layout written by {@link MappedEmployeeStore} are read through that store.
+ */
+public class EmployeeDataFile {
+
+    static final int MAGIC = 0x48525044; // "HRPD"
+    static final short VERSION = 3;
+    // Version 2 files have no bonus table; their records hold the bonus amount
+    static final short VERSION_WITHOUT_BONUS_TABLE = 2;
+    // Version 1 files have no reserved ID mark; new IDs then follow the highest ID in the file
+    static final short VERSION_WITHOUT_ID_MARK = 1;
+    static final short LAYOUT_COMPACT = 0;
+    static final short LAYOUT_MAPPED = 1;
+    static final int HEADER_SIZE = 20;
+    // Position of the reserved ID mark in the header, the same in both layouts
+    static final int ID_MARK_OFFSET = 16;
+
+    private static final short LEGACY_STREAM_MAGIC = (short) 0xACED;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // Longest possible encoding of one record in any version: an int and three indexes of up to 5 bytes
+    // and three longs of up to 10 bytes
+    private static final int MAX_RECORD_SIZE = 4 * 5 + 3 * 10;
+
+    private EmployeeDataFile() {
+    }
+
+    /**
+     * Reads all employee records from the given file.
+     * If the file was written with Java serialization it is migrated to the binary format first.
+     *
+     * @param path the data file
+     * @return the employee records in file order
+     * @throws IOException if the file cannot be read or is not an employee data file
+     */
+    public static List<EmployeeRecord> read(Path path) throws IOException {
+        List<EmployeeRecord> records = new ArrayList<>();
+        read(path, records::add);
+        return records;
+    }
+
+    /**
+     * Reads the employee records from the given file one at a time, without keeping them, so a caller that
+     * copies them elsewhere never holds the whole roster on the heap.
+     * If the file was written with Java serialization it is migrated to the binary format first.
+     *
+     * @param path   the data file
+     * @param action receives each record in file order
+     * @throws IOException if the file cannot be read or is not an employee data file
+     */
+    public static void read(Path path, Consumer<EmployeeRecord> action) throws IOException {
+        if (isLegacy(path)) {
+            List<EmployeeRecord> records = readLegacy(path);
+            // Keep the old file next to the new one in case the migration needs to be redone
+            Files.copy(path, path.resolveSibling(path.getFileName() + ".legacy"), StandardCopyOption.REPLACE_EXISTING);
+            write(path, records);
+            records.forEach(action);
+            return;
+        }
+        if (readLayout(path) == LAYOUT_MAPPED) {
+            MappedEmployeeStore.open(path).records().forEach(action);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            buffer.flip();
+            fill(channel, buffer, HEADER_SIZE);
+            int magic = buffer.getInt();
+            short version = buffer.getShort();
+            buffer.getShort(); // layout
+            int stringCount = buffer.getInt();
+            int recordCount = buffer.getInt();
+            if (magic != MAGIC || !isSupported(version)) {
+                throw new IOException("Unsupported employee data file: " + path);
+            }
+            if (version != VERSION_WITHOUT_ID_MARK) {
+                buffer.getInt(); // reserved ID mark, see readReservedIds
+            }
+
+            String[] strings = new String[stringCount];
+            byte[] scratch = new byte[256];
+            for (int i = 0; i < stringCount; i++) {
+                fill(channel, buffer, 5);
+                int length = readVarInt(buffer);
+                if (length > scratch.length) {
+                    scratch = new byte[length];
+                }
+                int copied = 0;
+                while (copied < length) {
+                    fill(channel, buffer, 1);
+                    int chunk = Math.min(buffer.remaining(), length - copied);
+                    buffer.get(scratch, copied, chunk);
+                    copied += chunk;
+                }
+                strings[i] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+            }
+
+            // The codes of the bonus table entries, or of the bonus amounts of older files as they come
+            boolean bonusTable = version >= VERSION;
+            int[] bonusCodes = new int[0];
+            if (bonusTable) {
+                fill(channel, buffer, 5);
+                bonusCodes = new int[readVarInt(buffer)];
+                for (int i = 0; i < bonusCodes.length; i++) {
+                    fill(channel, buffer, 10);
+                    bonusCodes[i] = EmployeeCodes.bonusCode(decodeZigZag(readVarLong(buffer)));
+                }
+            }
+
+            // Department codes by string table index, looked up when a department name is first used
+            int[] departmentCodes = new int[stringCount];
+            Arrays.fill(departmentCodes, -1);
+            int previousId = 0;
+            for (int i = 0; i < recordCount; i++) {
+                fill(channel, buffer, MAX_RECORD_SIZE);
+                int id = previousId + decodeZigZag(readVarInt(buffer));
+                String firstName = strings[readVarInt(buffer)];
+                String lastName = strings[readVarInt(buffer)];
+                int department = readVarInt(buffer);
+                if (departmentCodes[department] < 0) {
+                    departmentCodes[department] = EmployeeCodes.departmentCode(strings[department]);
+                }
+                long wageCents = decodeZigZag(readVarLong(buffer));
+                long hoursHundredths = decodeZigZag(readVarLong(buffer));
+                int bonusCode = bonusTable ? bonusCodes[readVarInt(buffer)]
+                        : EmployeeCodes.bonusCode(decodeZigZag(readVarLong(buffer)));
+                action.accept(EmployeeRecord.ofCodes(id, firstName, lastName, departmentCodes[department],
+                        wageCents, hoursHundredths, bonusCode));
+                previousId = id;
+            }
+        }
+    }
+
+    /**
+     * Writes the employee records to the given file, replacing it atomically, without a reserved ID mark.
+     *
+     * @param path    the data file
+     * @param records the employee records to write
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path path, List<EmployeeRecord> records) throws IOException {
+        write(path, records, 0);
+    }
+
+    /**
+     * Writes the employee records to the given file, replacing it atomically.
+     *
+     * @param path         the data file
+     * @param records      the employee records to write
+     * @param reservedIds  the highest employee ID handed out so far, or 0 to leave it to the IDs of the records
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path path, List<EmployeeRecord> records, int reservedIds) throws IOException {
+        // Assign every distinct string an index in the string table, and every bonus code one in the bonus table,
+        // kept by bonus code
+        Map<String, Integer> indexes = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        int[] refs = new int[records.size() * 3];
+        int[] bonusIndexes = new int[0];
+        List<Long> bonuses = new ArrayList<>();
+        for (int i = 0; i < records.size(); i++) {
+            EmployeeRecord record = records.get(i);
+            refs[i * 3] = indexOf(record.getFirstName(), indexes, strings);
+            refs[i * 3 + 1] = indexOf(record.getLastName(), indexes, strings);
+            refs[i * 3 + 2] = indexOf(record.getDepartment(), indexes, strings);
+            int bonusCode = record.getBonusCode();
+            if (bonusCode >= bonusIndexes.length) {
+                int known = bonusIndexes.length;
+                bonusIndexes = Arrays.copyOf(bonusIndexes, Math.max(bonusCode + 1, known * 2));
+                Arrays.fill(bonusIndexes, known, bonusIndexes.length, -1);
+            }
+            if (bonusIndexes[bonusCode] < 0) {
+                bonusIndexes[bonusCode] = bonuses.size();
+                bonuses.add(record.getBonusCents());
+            }
+        }
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            buffer.putInt(MAGIC).putShort(VERSION).putShort(LAYOUT_COMPACT)
+                    .putInt(strings.size()).putInt(records.size()).putInt(reservedIds);
+
+            for (String string : strings) {
+                byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                ensureRemaining(channel, buffer, 5);
+                writeVarInt(buffer, bytes.length);
+                int written = 0;
+                while (written < bytes.length) {
+                    ensureRemaining(channel, buffer, 1);
+                    int chunk = Math.min(buffer.remaining(), bytes.length - written);
+                    buffer.put(bytes, written, chunk);
+                    written += chunk;
+                }
+            }
+
+            ensureRemaining(channel, buffer, 5);
+            writeVarInt(buffer, bonuses.size());
+            for (long bonusCents : bonuses) {
+                ensureRemaining(channel, buffer, 10);
+                writeVarLong(buffer, encodeZigZag(bonusCents));
+            }
+
+            int previousId = 0;
+            for (int i = 0; i < records.size(); i++) {
+                EmployeeRecord record = records.get(i);
+                ensureRemaining(channel, buffer, MAX_RECORD_SIZE);
+                writeVarInt(buffer, encodeZigZag(record.getId() - previousId));
+                writeVarInt(buffer, refs[i * 3]);
+                writeVarInt(buffer, refs[i * 3 + 1]);
+                writeVarInt(buffer, refs[i * 3 + 2]);
+                writeVarLong(buffer, encodeZigZag(record.getWageCents()));
+                writeVarLong(buffer, encodeZigZag(record.getHoursHundredths()));
+                writeVarInt(buffer, bonusIndexes[record.getBonusCode()]);
+                previousId = record.getId();
+            }
+            flush(channel, buffer);
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static int indexOf(String string, Map<String, Integer> indexes, List<String> strings) {
+        Integer index = indexes.get(string);
+        if (index == null) {
+            index = strings.size();
+            indexes.put(string, index);
+            strings.add(string);
+        }
+        return index;
+    }
+
+    /**
+     * Returns the layout of a data file in the binary format.
+     *
+     * @param path the data file
+     * @return {@link #LAYOUT_COMPACT} or {@link #LAYOUT_MAPPED}, or -1 if the file is not in the binary format
+     * @throws IOException if the file cannot be read
+     */
+    static short readLayout(Path path) throws IOException {
+        ByteBuffer header = readHeader(path);
+        return header == null ? -1 : header.getShort(6);
+    }
+
+    /**
+     * Returns the highest employee ID handed out when the data file was written, in either layout.
+     *
+     * @param path the data file
+     * @return the reserved ID mark, or 0 if the file does not have one
+     * @throws IOException if the file cannot be read
+     */
+    public static int readReservedIds(Path path) throws IOException {
+        ByteBuffer header = readHeader(path);
+        if (header == null || (header.getShort(4) == VERSION_WITHOUT_ID_MARK && header.getShort(6) == LAYOUT_COMPACT)) {
+            return 0;
+        }
+        // Version 1 files in the mapped layout left the mark's position zeroed
+        return header.getInt(ID_MARK_OFFSET);
+    }
+
+    static boolean isSupported(short version) {
+        return version == VERSION || version == VERSION_WITHOUT_BONUS_TABLE || version == VERSION_WITHOUT_ID_MARK;
+    }
+
+    /**
+     * Reads the header of a data file in the binary format, or returns null if the file is not in that format.
+     */
+    private static ByteBuffer readHeader(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Keep reading until the header is complete or the file ends
+            }
+            // A version 1 file can be shorter than a full header, but never shorter than its layout field
+            if (header.position() < 8 || header.getInt(0) != MAGIC || !isSupported(header.getShort(4))) {
+                return null;
+            }
+            return header;
+        }
+    }
+
+    /**
+     * Checks whether the file starts with the Java serialization stream header.
+     */
+    private static boolean isLegacy(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(2);
+            return channel.read(header) == 2 && header.getShort(0) == LEGACY_STREAM_MAGIC;
+        }
+    }
+
+    /**
+     * Reads a file written with Java serialization, a list of {@link Employee} objects.
+     */
+    @SuppressWarnings("unchecked")
+    private static List<EmployeeRecord> readLegacy(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path); ObjectInputStream inputStream = new ObjectInputStream(in)) {
+            List<Employee> employees = (List<Employee>) inputStream.readObject();
+            List<EmployeeRecord> records = new ArrayList<>(employees.size());
+            for (Employee employee : employees) {
+                records.add(employee.getRecord());
+            }
+            return records;
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Unreadable legacy employee data file: " + path, e);
+        }
+    }
+
+    /**
+     * Makes sure the buffer holds at least the given number of unread bytes, reading more from the channel if needed.
+     * Fewer bytes are left only at the end of the file.
+     */
+    private static void fill(FileChannel channel, ByteBuffer buffer, int length) throws IOException {
+        if (buffer.remaining() >= length) {
+            return;
+        }
+        buffer.compact();
+        while (buffer.position() < length) {
+            if (channel.read(buffer) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+        if (!buffer.hasRemaining()) {
+            throw new IOException("Unexpected end of employee data file");
+        }
+    }
+
+    /**
+     * Flushes the buffer to the channel if it has less than the given number of bytes left.
+     */
+    private static void ensureRemaining(FileChannel channel, ByteBuffer buffer, int length) throws IOException {
+        if (buffer.remaining() < length) {
+            flush(channel, buffer);
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    static void writeVarInt(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static void writeVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static int readVarInt(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    // Zig-zag encoding maps small negative numbers to small positive ones so they stay short as variable-length integers
+    static int encodeZigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    static long encodeZigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static int decodeZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static long decodeZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
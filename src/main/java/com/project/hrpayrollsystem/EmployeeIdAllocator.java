@@ -0,0 +1,71 @@
+package com.project.hrpayrollsystem;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out employee IDs that are never handed out twice, also across restarts.
+ * <p>
+ * The allocator keeps a single high-water mark: the highest ID reserved so far. A caller reserves a block of
+ * consecutive IDs by moving the mark up with one compare-and-set and then assigns the IDs of its block on its own,
+ * so an importer adding thousands of employees touches the shared mark once per batch instead of once per employee.
+ * No locks are taken; a thread that loses a race for the mark retries with the new value.
+ * <p>
+ * The mark is saved in the header of the employee data file with every snapshot and recovered from it on load,
+ * together with the IDs found in the file and the journal, so the IDs of deleted employees are not given out again.
+ * IDs that were reserved but never used before a crash may be given out again, as nothing refers to them.
+ */
+public class EmployeeIdAllocator {
+
+    private final AtomicInteger reservedThrough = new AtomicInteger();
+
+    /**
+     * Reserves the next ID.
+     *
+     * @return the new ID
+     * @throws IllegalStateException if every positive int has been handed out
+     */
+    public int nextId() {
+        return reserve(1);
+    }
+
+    /**
+     * Reserves a block of consecutive IDs for the caller to assign.
+     *
+     * @param count the number of IDs to reserve, at least 1
+     * @return the first ID of the block; the block runs through {@code first + count - 1}
+     * @throws IllegalStateException if the block would run past the highest positive int
+     */
+    public int reserve(int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Cannot reserve " + count + " IDs");
+        }
+        while (true) {
+            int current = reservedThrough.get();
+            if (current > Integer.MAX_VALUE - count) {
+                throw new IllegalStateException("No employee IDs left to reserve " + count + " after " + current);
+            }
+            if (reservedThrough.compareAndSet(current, current + count)) {
+                return current + 1;
+            }
+        }
+    }
+
+    /**
+     * Makes sure IDs reserved from now on are higher than the given ID, e.g. the highest ID found in the data file.
+     * The mark never moves down.
+     *
+     * @param id the highest ID in use or reserved elsewhere
+     */
+    public void reserveThrough(int id) {
+        reservedThrough.accumulateAndGet(id, Math::max);
+    }
+
+    /**
+     * Returns the highest ID reserved so far, which is what the data file saves.
+     *
+     * @return the high-water mark, 0 if nothing was reserved
+     */
+    public int getReservedThrough() {
+        return reservedThrough.get();
+    }
+}
@@ -0,0 +1,226 @@
+package com.project.hrpayrollsystem;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * Imports employees in bulk from a CSV file.
+ * <p>
+ * Each line holds first name, last name, department, wage and hours, separated by commas; fields may be quoted.
+ * A first line naming the columns is skipped. The file is streamed in chunks of lines, and each chunk is parsed and
+ * validated on the fork-join pool while the next chunk is read. Only a few chunks are in flight at any time, so memory
+ * use does not grow with the file. Rows are checked against the same rules as adding an employee by hand:
+ * both names and the department are required, the department must exist and wage and hours must be non-negative numbers.
+ * Valid rows are handed on one chunk at a time, in file order; invalid rows are copied to a reject file with the reason.
+ */
+public class EmployeeImporter {
+
+    // Number of lines parsed as one chunk and inserted as one batch
+    static final int CHUNK_SIZE = 5000;
+    // Number of chunks read ahead of the chunk being inserted
+    private static final int CHUNKS_IN_FLIGHT = 4;
+    private static final int FIELD_COUNT = 5;
+
+    /**
+     * The outcome of an import.
+     */
+    public static final class Result {
+        private final int imported;
+        private final int rejected;
+        private final Path rejectFile;
+
+        Result(int imported, int rejected, Path rejectFile) {
+            this.imported = imported;
+            this.rejected = rejected;
+            this.rejectFile = rejectFile;
+        }
+
+        public int getImported() { return imported; }
+        public int getRejected() { return rejected; }
+        public Path getRejectFile() { return rejectFile; }
+    }
+
+    /**
+     * The valid records and rejected lines of one chunk.
+     */
+    private static final class Chunk {
+        private final List<EmployeeRecord> records = new ArrayList<>();
+        private final List<String> rejects = new ArrayList<>();
+    }
+
+    private EmployeeImporter() {
+    }
+
+    /**
+     * Imports the employees of a CSV file.
+     *
+     * @param source     the CSV file to import
+     * @param rejectFile the file invalid lines are written to; only created if there are invalid lines
+     * @param insert     receives the valid records of each chunk, in file order; the records have no ID yet
+     * @return the number of imported and rejected rows
+     * @throws IOException if the file cannot be read or the reject file cannot be written
+     */
+    public static Result importCsv(Path source, Path rejectFile, Consumer<List<EmployeeRecord>> insert) throws IOException {
+        Deque<CompletableFuture<Chunk>> inFlight = new ArrayDeque<>();
+        BufferedWriter rejects = null;
+        int imported = 0;
+        int rejected = 0;
+        try (BufferedReader reader = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+            int lineNumber = 0;
+            List<String> lines = new ArrayList<>(CHUNK_SIZE);
+            String line;
+            while (true) {
+                line = reader.readLine();
+                if (line != null) {
+                    lineNumber++;
+                    if (lineNumber == 1 && isHeader(line)) {
+                        continue;
+                    }
+                    lines.add(line);
+                    if (lines.size() < CHUNK_SIZE) {
+                        continue;
+                    }
+                }
+                if (!lines.isEmpty()) {
+                    List<String> chunkLines = lines;
+                    inFlight.add(CompletableFuture.supplyAsync(() -> parse(chunkLines), ForkJoinPool.commonPool()));
+                    lines = new ArrayList<>(CHUNK_SIZE);
+                }
+                // Insert the oldest chunk once enough are in flight, or all remaining chunks at the end of the file
+                while (!inFlight.isEmpty() && (line == null || inFlight.size() >= CHUNKS_IN_FLIGHT)) {
+                    Chunk chunk = inFlight.poll().join();
+                    if (!chunk.records.isEmpty()) {
+                        insert.accept(chunk.records);
+                        imported += chunk.records.size();
+                    }
+                    if (!chunk.rejects.isEmpty()) {
+                        if (rejects == null) {
+                            rejects = Files.newBufferedWriter(rejectFile, StandardCharsets.UTF_8);
+                        }
+                        for (String reject : chunk.rejects) {
+                            rejects.write(reject);
+                            rejects.newLine();
+                        }
+                        rejected += chunk.rejects.size();
+                    }
+                }
+                if (line == null) {
+                    break;
+                }
+            }
+        } finally {
+            if (rejects != null) {
+                rejects.close();
+            }
+        }
+        return new Result(imported, rejected, rejected > 0 ? rejectFile : null);
+    }
+
+    /**
+     * Parses and validates the lines of one chunk.
+     */
+    private static Chunk parse(List<String> lines) {
+        Chunk chunk = new Chunk();
+        for (String line : lines) {
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> fields = splitFields(line);
+            String reason = validate(fields);
+            if (reason != null) {
+                chunk.rejects.add(line + "," + reason);
+                continue;
+            }
+            chunk.records.add(new EmployeeRecord(0, fields.get(0), fields.get(1), fields.get(2),
+                    FixedPoint.toHundredths(Double.parseDouble(fields.get(3))),
+                    FixedPoint.toHundredths(Double.parseDouble(fields.get(4))), 0));
+        }
+        return chunk;
+    }
+
+    /**
+     * Checks the fields of a row against the rules for adding an employee.
+     *
+     * @return the reason the row is invalid, or null if it is valid
+     */
+    private static String validate(List<String> fields) {
+        if (fields.size() != FIELD_COUNT) {
+            return "Expected " + FIELD_COUNT + " fields but found " + fields.size();
+        }
+        for (String field : fields) {
+            if (field.isEmpty()) {
+                return "All fields are required";
+            }
+        }
+        if (EmployeeManager.getDepartment(fields.get(2)) == null) {
+            return "Unknown department";
+        }
+        try {
+            double wage = Double.parseDouble(fields.get(3));
+            double hours = Double.parseDouble(fields.get(4));
+            // Cant be a negative number
+            if (!(wage >= 0) || !(hours >= 0) || Double.isInfinite(wage) || Double.isInfinite(hours)) {
+                return "Wage and hours must be positive numbers";
+            }
+            // Nor so large that payroll totals could overflow, the same limits as adding an employee by hand
+            if (!EmployeeRecord.isValidPay(FixedPoint.toHundredths(wage), FixedPoint.toHundredths(hours), 0)) {
+                return "Wage must be at most $" + Money.format(EmployeeRecord.MAX_WAGE_CENTS) + " and hours at most "
+                        + EmployeeRecord.MAX_HOURS_HUNDREDTHS / 100;
+            }
+        } catch (NumberFormatException e) {
+            return "Wage and hours must be positive numbers";
+        }
+        return null;
+    }
+
+    /**
+     * Splits a CSV line into trimmed fields. A field in double quotes may contain commas, and a doubled quote inside it
+     * stands for one quote.
+     */
+    static List<String> splitFields(String line) {
+        List<String> fields = new ArrayList<>(FIELD_COUNT);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields;
+    }
+
+    /**
+     * A first line is taken as a header when its wage column holds the column name rather than a number.
+     */
+    private static boolean isHeader(String line) {
+        List<String> fields = splitFields(line);
+        return fields.size() == FIELD_COUNT && fields.get(3).toLowerCase().contains("wage");
+    }
+}
@@ -0,0 +1,341 @@
+package com.project.hrpayrollsystem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Indexes employee records for lookups that would otherwise scan the whole roster.
+ * <p>
+ * The primary index is a hash map from employee ID to the record as it was last indexed. The name indexes map each
+ * lower-cased first and last name to the IDs of the employees with it, kept sorted so every name starting with a
+ * prefix can be found in O(log n). Department membership is indexed by the {@link Department} objects themselves.
+ * Because the indexed record is kept, an update can remove the old index entries before adding the new ones
+ * and callers can tell which department an employee is leaving.
+ */
+public class EmployeeIndex {
+
+    // Separates the name from the ID in the keys of the name indexes so equal names stay distinct
+    private static final char KEY_SEPARATOR = '\u0000';
+    // Matches counted per word when judging which word of a search query is the most selective
+    private static final int ESTIMATE_LIMIT = 4096;
+    // Candidates a search looks at before it settles for the matches found so far
+    private static final int SCAN_LIMIT = 50_000;
+
+    private final Map<Integer, EmployeeRecord> byId = new HashMap<>();
+    private final NavigableMap<String, Integer> byFirstName = new TreeMap<>();
+    private final NavigableMap<String, Integer> byLastName = new TreeMap<>();
+    // Highest ID ever indexed, which bounds the ID ranges a search probes
+    private int maxId;
+
+    /**
+     * Builds the index of a whole roster at once. The name keys are sorted in parallel and then inserted in order,
+     * which is much faster than putting the records one at a time. The records must have distinct IDs.
+     *
+     * @param records the records to index
+     * @return the index of the records
+     */
+    public static EmployeeIndex of(List<EmployeeRecord> records) {
+        EmployeeIndex index = new EmployeeIndex();
+        String[] firstNames = new String[records.size()];
+        String[] lastNames = new String[records.size()];
+        for (int i = 0; i < firstNames.length; i++) {
+            EmployeeRecord record = records.get(i);
+            index.byId.put(record.getId(), record);
+            index.maxId = Math.max(index.maxId, record.getId());
+            firstNames[i] = nameKey(record.getFirstName(), record.getId());
+            lastNames[i] = nameKey(record.getLastName(), record.getId());
+        }
+        Arrays.parallelSort(firstNames);
+        Arrays.parallelSort(lastNames);
+        for (String key : firstNames) {
+            index.byFirstName.put(key, idOfKey(key));
+        }
+        for (String key : lastNames) {
+            index.byLastName.put(key, idOfKey(key));
+        }
+        return index;
+    }
+
+    /**
+     * Indexes a record, replacing the entries of the previous record with the same ID.
+     *
+     * @param record the record to index
+     * @return the previously indexed record with the same ID, or null
+     */
+    public EmployeeRecord put(EmployeeRecord record) {
+        EmployeeRecord previous = remove(record.getId());
+        byId.put(record.getId(), record);
+        byFirstName.put(nameKey(record.getFirstName(), record.getId()), record.getId());
+        byLastName.put(nameKey(record.getLastName(), record.getId()), record.getId());
+        maxId = Math.max(maxId, record.getId());
+        return previous;
+    }
+
+    /**
+     * Removes the record with the given ID from all indexes.
+     *
+     * @param id the employee ID
+     * @return the removed record, or null if no record had that ID
+     */
+    public EmployeeRecord remove(int id) {
+        EmployeeRecord previous = byId.remove(id);
+        if (previous != null) {
+            byFirstName.remove(nameKey(previous.getFirstName(), id));
+            byLastName.remove(nameKey(previous.getLastName(), id));
+        }
+        return previous;
+    }
+
+    /**
+     * Returns the indexed record with the given ID.
+     *
+     * @param id the employee ID
+     * @return the record, or null if no record has that ID
+     */
+    public EmployeeRecord get(int id) {
+        return byId.get(id);
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    /**
+     * Finds the employees whose first or last name starts with the given prefix, ignoring case.
+     * Matches on the last name come first, each group ordered by name.
+     *
+     * @param prefix the start of the name
+     * @param limit  the maximum number of IDs to return
+     * @return the IDs of the matching employees, without duplicates
+     */
+    public List<Integer> findByNamePrefix(String prefix, int limit) {
+        Set<Integer> matches = new LinkedHashSet<>();
+        String from = prefix.toLowerCase(Locale.ROOT);
+        String to = from + Character.MAX_VALUE;
+        for (NavigableMap<String, Integer> names : List.of(byLastName, byFirstName)) {
+            for (Integer id : names.subMap(from, true, to, false).values()) {
+                if (matches.size() >= limit) {
+                    return new ArrayList<>(matches);
+                }
+                matches.add(id);
+            }
+        }
+        return new ArrayList<>(matches);
+    }
+
+    /**
+     * Finds the employees matching a search query, as typed into a search box.
+     * Each word of the query must be the start of the employee's ID, first name, last name or a word of its department,
+     * ignoring case. Matches come in the order of the lookups: IDs, last names, first names, then departments.
+     * <p>
+     * Only the word expected to match the fewest employees is looked up, and its matches are checked against the other
+     * words, so a query costs the matches it reads rather than the size of the roster. A query made only of very common
+     * words stops after {@value #SCAN_LIMIT} candidates with the matches found so far.
+     *
+     * @param query       the search text
+     * @param limit       the maximum number of IDs to return
+     * @param departments the departments, whose members are the employees found by department
+     * @return the IDs of the matching employees, without duplicates
+     */
+    public List<Integer> search(String query, int limit, Collection<Department> departments) {
+        String trimmed = query.trim().toLowerCase(Locale.ROOT);
+        if (trimmed.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String[] words = trimmed.split("\\s+");
+        List<Set<String>> departmentMatches = new ArrayList<>(words.length);
+        for (String word : words) {
+            departmentMatches.add(departmentsMatching(word, departments));
+        }
+        int lookup = 0;
+        int fewest = Integer.MAX_VALUE;
+        for (int i = 0; i < words.length; i++) {
+            int estimate = estimateMatches(words[i], departmentMatches.get(i), departments);
+            if (estimate < fewest) {
+                fewest = estimate;
+                lookup = i;
+            }
+        }
+
+        Search search = new Search(words, departmentMatches, limit);
+        String word = words[lookup];
+        if (isDigits(word) && !searchIds(word, search)) {
+            return search.result();
+        }
+        String to = word + Character.MAX_VALUE;
+        for (NavigableMap<String, Integer> names : List.of(byLastName, byFirstName)) {
+            for (Integer id : names.subMap(word, true, to, false).values()) {
+                if (!search.offer(id)) {
+                    return search.result();
+                }
+            }
+        }
+        for (Department department : departments) {
+            if (departmentMatches.get(lookup).contains(department.getName())) {
+                for (Integer id : department.getEmployeeIds()) {
+                    if (!search.offer(id)) {
+                        return search.result();
+                    }
+                }
+            }
+        }
+        return search.result();
+    }
+
+    /**
+     * The matches of a search so far, checking each candidate against every word of the query.
+     */
+    private final class Search {
+        private final String[] words;
+        private final List<Set<String>> departmentMatches;
+        private final int limit;
+        private final Set<Integer> matches = new LinkedHashSet<>();
+        private int scanned;
+
+        Search(String[] words, List<Set<String>> departmentMatches, int limit) {
+            this.words = words;
+            this.departmentMatches = departmentMatches;
+            this.limit = limit;
+        }
+
+        /**
+         * Adds the candidate if it is indexed and matches, and returns whether the search should go on.
+         */
+        boolean offer(int id) {
+            if (matches.size() >= limit || ++scanned > SCAN_LIMIT) {
+                return false;
+            }
+            EmployeeRecord record = byId.get(id);
+            if (record != null && (words.length == 1 || matchesAll(record))) {
+                matches.add(id);
+            }
+            return matches.size() < limit;
+        }
+
+        private boolean matchesAll(EmployeeRecord record) {
+            for (int i = 0; i < words.length; i++) {
+                String word = words[i];
+                boolean matches = startsWithIgnoreCase(record.getLastName(), word)
+                        || startsWithIgnoreCase(record.getFirstName(), word)
+                        || departmentMatches.get(i).contains(record.getDepartment())
+                        || (isDigits(word) && Integer.toString(record.getId()).startsWith(word));
+                if (!matches) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        List<Integer> result() {
+            return new ArrayList<>(matches);
+        }
+    }
+
+    /**
+     * Offers the IDs whose decimal digits start with the given digits, shortest IDs first:
+     * 12, then 120 to 129, then 1200 to 1299 and so on up to the highest ID.
+     * IDs are mostly consecutive, so probing the ranges finds matches without a sorted index of the IDs.
+     *
+     * @return whether the search should go on
+     */
+    private boolean searchIds(String digits, Search search) {
+        if (digits.length() > 10) {
+            return true;
+        }
+        long from = Long.parseLong(digits);
+        long to = from;
+        while (from <= maxId) {
+            for (long id = from; id <= Math.min(to, maxId); id++) {
+                if (!search.offer((int) id)) {
+                    return false;
+                }
+            }
+            if (from == 0) {
+                // No other ID starts with a zero
+                break;
+            }
+            from *= 10;
+            to = to * 10 + 9;
+        }
+        return true;
+    }
+
+    /**
+     * Estimates how many employees a word of a query matches, counting name matches only up to a limit.
+     */
+    private int estimateMatches(String word, Set<String> departmentNames, Collection<Department> departments) {
+        long estimate = 0;
+        if (isDigits(word)) {
+            // About one in ten of the IDs with one digit less
+            estimate += Math.max(1, (long) (maxId / Math.pow(10, word.length() - 1)));
+        }
+        String to = word + Character.MAX_VALUE;
+        int names = 0;
+        for (NavigableMap<String, Integer> index : List.of(byLastName, byFirstName)) {
+            for (Integer ignored : index.subMap(word, true, to, false).values()) {
+                if (++names >= ESTIMATE_LIMIT) {
+                    break;
+                }
+            }
+        }
+        estimate += names;
+        for (Department department : departments) {
+            if (departmentNames.contains(department.getName())) {
+                estimate += department.getHeadcount();
+            }
+        }
+        return (int) Math.min(estimate, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the names of the departments whose name, or a word of it, starts with the given word.
+     */
+    private static Set<String> departmentsMatching(String word, Collection<Department> departments) {
+        Set<String> names = new HashSet<>();
+        for (Department department : departments) {
+            String name = department.getName().toLowerCase(Locale.ROOT);
+            if (name.startsWith(word)) {
+                names.add(department.getName());
+                continue;
+            }
+            for (String part : name.split("[^\\p{Alnum}]+")) {
+                if (!part.isEmpty() && part.startsWith(word)) {
+                    names.add(department.getName());
+                    break;
+                }
+            }
+        }
+        return names;
+    }
+
+    private static boolean startsWithIgnoreCase(String text, String prefix) {
+        return text.regionMatches(true, 0, prefix, 0, prefix.length());
+    }
+
+    private static boolean isDigits(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (word.charAt(i) < '0' || word.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return !word.isEmpty();
+    }
+
+    private static String nameKey(String name, int id) {
+        return name.toLowerCase(Locale.ROOT) + KEY_SEPARATOR + id;
+    }
+
+    private static int idOfKey(String key) {
+        return Integer.parseInt(key.substring(key.lastIndexOf(KEY_SEPARATOR) + 1));
+    }
+}
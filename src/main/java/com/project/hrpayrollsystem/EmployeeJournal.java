@@ -0,0 +1,416 @@
+package com.project.hrpayrollsystem;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only journal of employee changes written ahead of the employee data file.
+ * <p>
+ * Every add, update and delete is encoded on the calling thread and handed to a writer thread, so recording a change
+ * costs the same regardless of the number of employees. The writer thread writes whatever entries have queued up
+ * and then forces them to disk with a single fsync (group commit). Each entry is length-prefixed and ends with a
+ * CRC32 checksum, so an entry torn by a crash is detected and dropped on replay.
+ * <p>
+ * To fold the journal into the data file, the journal is rotated: the current file is renamed to an ".old" file
+ * and a new one is started. The rotation is queued like an entry, so changes recorded before it go to the ".old"
+ * file and later ones to the new file without the caller waiting for the disk.
+ * Once a snapshot containing those changes has been written, the ".old" file is deleted.
+ * Recovery replays the ".old" file, if any, and then the current file on top of the snapshot.
+ * A ".old" file left behind by a crash or a snapshot that could not be written is folded into the next snapshot
+ * instead of being rotated over.
+ * <p>
+ * If the journal cannot be written, the writer thread stops and the journal fails: from then on {@link #append},
+ * {@link #flush()} and {@link #close()} throw, so the owner knows the changes are no longer durable and can save them
+ * some other way.
+ */
+public class EmployeeJournal {
+
+    public static final byte ADD = 1;
+    public static final byte UPDATE = 2;
+    public static final byte DELETE = 3;
+
+    /**
+     * Receives the entries of a journal during replay.
+     */
+    public interface Replay {
+        /**
+         * Applies one journal entry.
+         *
+         * @param operation {@link #ADD}, {@link #UPDATE} or {@link #DELETE}
+         * @param record    the record after the change, or the deleted record
+         */
+        void apply(byte operation, EmployeeRecord record);
+    }
+
+    private final Path path;
+    private final Path oldPath;
+    // Queued in place of an entry to rotate the journal at that point
+    private static final byte[] ROTATE = new byte[0];
+
+    private final BlockingQueue<byte[]> queue = new LinkedBlockingQueue<>();
+    private final Object channelLock = new Object();
+    private final Thread writer;
+    private FileChannel channel;
+    private volatile boolean running = true;
+    private long appended;
+    private long durable;
+    // Whether a rotation was requested whose ".old" journal has not been deleted yet, and whether it has been done
+    private boolean rotationPending;
+    private boolean rotated;
+    // The error that stopped the writer thread, after which nothing more is written
+    private volatile IOException failure;
+
+    /**
+     * Opens the journal for appending and starts its writer thread.
+     * A torn entry at the end of the journal left by a crash is cut off first.
+     *
+     * @param path the journal file
+     * @throws IOException if the journal cannot be opened
+     */
+    public EmployeeJournal(Path path) throws IOException {
+        this.path = path;
+        this.oldPath = rotatedPath(path);
+        this.channel = open(path);
+        this.writer = new Thread(this::writeLoop, "employee-journal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Replays the journal at the given path, the rotated ".old" journal first.
+     *
+     * @param path   the journal file
+     * @param replay receives the entries in the order they were written
+     * @return the number of entries replayed
+     * @throws IOException if the journal cannot be read
+     */
+    public static int replay(Path path, Replay replay) throws IOException {
+        Path oldPath = rotatedPath(path);
+        int[] entries = {0};
+        Replay counting = (operation, record) -> {
+            entries[0]++;
+            replay.apply(operation, record);
+        };
+        if (Files.exists(oldPath)) {
+            replayFile(oldPath, counting);
+        }
+        if (Files.exists(path)) {
+            replayFile(path, counting);
+        }
+        return entries[0];
+    }
+
+    /**
+     * Returns the path of the rotated ".old" journal of a journal.
+     *
+     * @param path the journal file
+     * @return the rotated journal file next to it
+     */
+    public static Path rotatedPath(Path path) {
+        return path.resolveSibling(path.getFileName() + ".old");
+    }
+
+    /**
+     * Queues a change for writing. Returns without waiting for the change to reach the disk.
+     *
+     * @param operation {@link #ADD}, {@link #UPDATE} or {@link #DELETE}
+     * @param record    the record after the change
+     * @throws IOException if the journal failed, in which case the change is not recorded
+     */
+    public void append(byte operation, EmployeeRecord record) throws IOException {
+        checkNotFailed();
+        byte[] entry = encode(operation, record);
+        synchronized (this) {
+            appended++;
+        }
+        queue.add(entry);
+    }
+
+    /**
+     * Waits until every queued change has been written and forced to disk.
+     *
+     * @throws IOException          if the journal failed or its writer thread stopped before the changes were written
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public synchronized void flush() throws IOException, InterruptedException {
+        while (durable < appended && failure == null && writer.isAlive()) {
+            wait(100);
+        }
+        checkNotFailed();
+        if (durable < appended) {
+            throw new IOException("The journal writer stopped before writing " + (appended - durable) + " changes");
+        }
+    }
+
+    /**
+     * Returns whether the journal failed, so the changes appended since the last snapshot may not be on disk.
+     *
+     * @return true if the writer thread stopped on an error
+     */
+    public boolean hasFailed() {
+        return failure != null;
+    }
+
+    /**
+     * Queues a rotation: the changes appended so far end up in the ".old" journal and later ones in a new journal.
+     * Returns false if a rotation is already pending. If a ".old" journal is left from a rotation that was never
+     * folded into the data file, nothing is rotated, so it is not overwritten; the snapshot the caller writes next
+     * contains its changes all the same, and {@link #deleteRotated()} then deletes it.
+     *
+     * @return whether the caller should write a snapshot and then call {@link #deleteRotated()}
+     */
+    public synchronized boolean rotate() {
+        if (rotationPending) {
+            return false;
+        }
+        rotationPending = true;
+        if (Files.exists(oldPath)) {
+            rotated = true;
+        } else {
+            rotated = false;
+            queue.add(ROTATE);
+        }
+        return true;
+    }
+
+    /**
+     * Gives up a rotation whose snapshot could not be written, keeping the ".old" journal so the next rotation
+     * folds it in. Waits for the queued rotation to be carried out first, so it cannot happen after a later one.
+     *
+     * @throws InterruptedException if interrupted while waiting for the rotation
+     */
+    public synchronized void abandonRotation() throws InterruptedException {
+        while (rotationPending && !rotated && writer.isAlive()) {
+            wait(100);
+        }
+        rotationPending = false;
+    }
+
+    /**
+     * Deletes the ".old" journal once its changes are contained in the data file.
+     * Waits for the queued rotation to be carried out first.
+     *
+     * @throws IOException          if the file cannot be deleted
+     * @throws InterruptedException if interrupted while waiting for the rotation
+     */
+    public void deleteRotated() throws IOException, InterruptedException {
+        synchronized (this) {
+            while (rotationPending && !rotated && writer.isAlive()) {
+                wait(100);
+            }
+        }
+        Files.deleteIfExists(oldPath);
+        synchronized (this) {
+            rotationPending = false;
+        }
+    }
+
+    /**
+     * Writes the remaining changes, stops the writer thread and closes the journal.
+     * The journal is closed even if the changes could not all be written.
+     *
+     * @throws IOException if the journal failed, so changes appended since the last snapshot may be lost
+     */
+    public void close() throws IOException {
+        IOException error = null;
+        try {
+            flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            error = e;
+        }
+        running = false;
+        try {
+            writer.join(1000);
+            synchronized (channelLock) {
+                channel.close();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            if (error == null) {
+                error = e;
+            } else {
+                error.addSuppressed(e);
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    private void checkNotFailed() throws IOException {
+        IOException failure = this.failure;
+        if (failure != null) {
+            throw new IOException("The journal can no longer be written: " + path, failure);
+        }
+    }
+
+    /**
+     * Writes queued entries in batches, forcing each batch to disk once.
+     */
+    private void writeLoop() {
+        List<byte[]> batch = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                byte[] first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch);
+                int written = 0;
+                boolean rotate = false;
+                synchronized (channelLock) {
+                    for (byte[] entry : batch) {
+                        if (entry == ROTATE) {
+                            // Everything before the rotation belongs in the ".old" journal
+                            channel.force(false);
+                            channel.close();
+                            Files.move(path, oldPath, StandardCopyOption.ATOMIC_MOVE);
+                            channel = open(path);
+                            rotate = true;
+                            continue;
+                        }
+                        ByteBuffer buffer = ByteBuffer.wrap(entry);
+                        while (buffer.hasRemaining()) {
+                            channel.write(buffer);
+                        }
+                        written++;
+                    }
+                    channel.force(false);
+                }
+                synchronized (this) {
+                    durable += written;
+                    rotated |= rotate;
+                    notifyAll();
+                }
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException e) {
+                e.printStackTrace();
+                // Nothing more is written; appending, flushing and closing report the failure from now on
+                synchronized (this) {
+                    failure = e;
+                    notifyAll();
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Opens a journal for appending, cutting off anything after the last complete entry.
+     */
+    private static FileChannel open(Path path) throws IOException {
+        long end = Files.exists(path) ? replayFile(path, null) : 0;
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.truncate(end);
+        channel.position(end);
+        return channel;
+    }
+
+    /**
+     * Encodes an entry as its payload length, the payload and the CRC32 of the payload.
+     */
+    private static byte[] encode(byte operation, EmployeeRecord record) {
+        byte[] firstName = record.getFirstName().getBytes(StandardCharsets.UTF_8);
+        byte[] lastName = record.getLastName().getBytes(StandardCharsets.UTF_8);
+        byte[] department = record.getDepartment().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(4 + 1 + 4 + 3 * 5 + firstName.length + lastName.length
+                + department.length + 3 * 10 + 4);
+        buffer.position(4);
+        buffer.put(operation).putInt(record.getId());
+        putString(buffer, firstName);
+        putString(buffer, lastName);
+        putString(buffer, department);
+        EmployeeDataFile.writeVarLong(buffer, EmployeeDataFile.encodeZigZag(record.getWageCents()));
+        EmployeeDataFile.writeVarLong(buffer, EmployeeDataFile.encodeZigZag(record.getHoursHundredths()));
+        EmployeeDataFile.writeVarLong(buffer, EmployeeDataFile.encodeZigZag(record.getBonusCents()));
+        int payloadLength = buffer.position() - 4;
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 4, payloadLength);
+        buffer.putInt((int) crc.getValue());
+        buffer.putInt(0, payloadLength);
+        byte[] entry = new byte[buffer.position()];
+        System.arraycopy(buffer.array(), 0, entry, 0, entry.length);
+        return entry;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        EmployeeDataFile.writeVarInt(buffer, bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[EmployeeDataFile.readVarInt(buffer)];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads the complete entries of one journal file, passing them to the replay if one is given.
+     * Returns the file position after the last complete entry; replay stops at the first torn or corrupt entry.
+     */
+    private static long replayFile(Path path, Replay replay) throws IOException {
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer lengthBuffer = ByteBuffer.allocate(4);
+            long position = 0;
+            while (true) {
+                lengthBuffer.clear();
+                if (readFully(in, lengthBuffer) < 4) {
+                    break;
+                }
+                int payloadLength = lengthBuffer.getInt(0);
+                if (payloadLength <= 0 || payloadLength > in.size() - position) {
+                    break;
+                }
+                ByteBuffer payload = ByteBuffer.allocate(payloadLength + 4);
+                if (readFully(in, payload) < payload.capacity()) {
+                    break;
+                }
+                CRC32 crc = new CRC32();
+                crc.update(payload.array(), 0, payloadLength);
+                if ((int) crc.getValue() != payload.getInt(payloadLength)) {
+                    break;
+                }
+                if (replay != null) {
+                    payload.flip();
+                    byte operation = payload.get();
+                    int id = payload.getInt();
+                    EmployeeRecord record = new EmployeeRecord(id, getString(payload), getString(payload), getString(payload),
+                            EmployeeDataFile.decodeZigZag(EmployeeDataFile.readVarLong(payload)),
+                            EmployeeDataFile.decodeZigZag(EmployeeDataFile.readVarLong(payload)),
+                            EmployeeDataFile.decodeZigZag(EmployeeDataFile.readVarLong(payload)));
+                    replay.apply(operation, record);
+                }
+                position += 4 + payloadLength + 4;
+            }
+            return position;
+        }
+    }
+
+    private static int readFully(FileChannel in, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (in.read(buffer) < 0) {
+                break;
+            }
+        }
+        return buffer.position();
+    }
+}
@@ -1,24 +1,22 @@
 package com.project.hrpayrollsystem;
 
-import javafx.collections.FXCollections;
+import javafx.application.Platform;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.TextFieldTableCell;
-import javafx.scene.image.Image;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 
+import java.io.File;
 import java.io.IOException;
-import java.util.Objects;
+import java.nio.file.Path;
 
 /**
  * The controller class for managing employees in the HR Payroll System.
  * This class handles the UI interactions and logic related to employee management.
  */
-public class EmployeeManagementController {
+public class EmployeeManagementController implements Navigator.Refreshable {
     @FXML
     public Button backButton;
     @FXML
@@ -28,6 +26,10 @@ public class EmployeeManagementController {
     @FXML
     public Button editEmployee;
     @FXML
+    public Button importEmployees;
+    @FXML
+    private TextField searchField;
+    @FXML
     private TableView<Employee> employeeTable;
     @FXML
     private TableColumn<Employee, String> firstNameColumn;
@@ -42,10 +44,12 @@ public class EmployeeManagementController {
     @FXML
     public TableColumn<Employee, String> bonusColumn;
 
+    private EmployeeSearch search;
 
     /**
      * Initializes the EmployeeManagementController.
      * Sets up the table columns and binds the table data to the employee list.
+     * Typing into the search field shows the matching employees instead.
      */
     @FXML
     private void initialize() {
@@ -57,46 +61,36 @@ public class EmployeeManagementController {
         hoursColumn.setCellValueFactory(cellData -> cellData.getValue().hoursProperty());
         bonusColumn.setCellValueFactory(cellData -> cellData.getValue().bonusProperty());
 
-        // Bind the table data to the employee list
+        // Bind the table data to the employee list, which fetches the employees of the rows scrolled into view
         employeeTable.setItems(EmployeeManager.getEmployeeList());
+        search = new EmployeeSearch(searchField, employeeTable::setItems);
+    }
+
+    /**
+     * Shows the current employee list, or the current matches of the search, each time the screen is shown,
+     * with no employee selected.
+     */
+    @Override
+    public void onShow() {
+        search.refresh();
+        // Edits made on other screens replace the records behind the rows
+        employeeTable.refresh();
+        employeeTable.getSelectionModel().clearSelection();
     }
 
     /**
-     * Opens a new stage to add an employee.
-     * Loads the addEmployee FXML and creates a new stage with the addEmployee scene.
-     * Sets the icon for the new stage and sets the title.
-     * Closes the current stage if needed.
+     * Opens the add employee screen in the current stage.
      */
     @FXML
     private void addEmployeeMethod() {
-        try {
-            // Load the addEmployee FXML
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/project/hrpayrollsystem/fxml/addEmployee.fxml"));
-            Parent root = loader.load();
-            // Create a new scene with the addEmployee scene
-            Scene scene = new Scene(root);
-            // Create a new stage
-            Stage addEmployeeStage = new Stage();
-            addEmployeeStage.setScene(scene);
-            // Set the icon for the new stage
-            Image newIcon = new Image(Objects.requireNonNull(getClass().getResourceAsStream("/com/project/hrpayrollsystem/images/square-plus.png")));
-            addEmployeeStage.getIcons().add(newIcon);
-            addEmployeeStage.setTitle("HR Manager and Payroll System - Add Employee");
-            // Show the new stage
-            addEmployeeStage.show();
-            addEmployeeStage.setResizable(false);
-            // Close the current stage if needed
-            Stage currentStage = (Stage) employeeTable.getScene().getWindow();
-            currentStage.close();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        Stage stage = (Stage) employeeTable.getScene().getWindow();
+        Navigator.show(stage, Navigator.Screen.ADD_EMPLOYEE);
     }
 
     /**
      * This method is called when the user clicks on the "Edit Employee" button.
-     * It retrieves the selected employee from the employeeTable and opens a new stage
-     * with the editEmployee scene, allowing the user to edit the employee's information.
+     * It retrieves the selected employee from the employeeTable and opens the edit employee screen
+     * in the current stage, allowing the user to edit the employee's information.
      * If no employee is selected, it displays an alert message.
      *
      * @param actionEvent The action event triggered by clicking the "Edit Employee" button.
@@ -106,33 +100,11 @@ public class EmployeeManagementController {
         Employee selectedEmployee = employeeTable.getSelectionModel().getSelectedItem();
 
         if (selectedEmployee != null) {
-            try {
-                // Load the editEmployee FXML
-                FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/project/hrpayrollsystem/fxml/editEmployee.fxml"));
-                Parent root = loader.load();
-                // Get the controller of the editEmployee scene
-                EditEmployeeController editEmployeeController = loader.getController();
-                // Set the selected employee's information in the editEmployee controller
-                editEmployeeController.setEmployeeData(selectedEmployee);
-                // Create a new scene with the editEmployee scene
-                Scene scene = new Scene(root);
-                // Create a new stage
-                Stage editEmployeeStage = new Stage();
-                editEmployeeStage.setScene(scene);
-                // Set the icon for the new stage
-                Image newIcon = new Image(Objects.requireNonNull(getClass().getResourceAsStream("/com/project/hrpayrollsystem/images/square-plus.png")));
-                editEmployeeStage.getIcons().add(newIcon);
-                editEmployeeStage.setTitle("HR Manager and Payroll System - Edit Employee");
-
-                // Show the new stage
-                editEmployeeStage.show();
-                // Close the current stage if needed
-                Stage currentStage = (Stage) employeeTable.getScene().getWindow();
-                currentStage.close();
-
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
+            // Set the selected employee's information in the editEmployee controller
+            EditEmployeeController editEmployeeController = Navigator.getController(Navigator.Screen.EDIT_EMPLOYEE);
+            editEmployeeController.setEmployeeData(selectedEmployee);
+            Stage stage = (Stage) employeeTable.getScene().getWindow();
+            Navigator.show(stage, Navigator.Screen.EDIT_EMPLOYEE);
         } else {
             Utilities.showAlert("Alert", "Please select an employee to edit.");
         }
@@ -143,29 +115,57 @@ public class EmployeeManagementController {
      */
     @FXML
     private void goBack() {
-        try {
-            // Load the main menu FXML
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/project/hrpayrollsystem/fxml/mainMenu.fxml"));
-            Parent root = loader.load();
-            // Create a new scene with the main menu
-            Scene scene = new Scene(root);
-            // Get the current stage
-            Stage stage = (Stage) employeeTable.getScene().getWindow();
+        Stage stage = (Stage) employeeTable.getScene().getWindow();
+        Navigator.show(stage, Navigator.Screen.MAIN_MENU);
+    }
 
-            Image newIcon = new Image(Objects.requireNonNull(getClass().getResourceAsStream("/com/project/hrpayrollsystem/images/home.png")));
-            stage.getIcons().clear();
-            stage.getIcons().add(newIcon);
-            stage.setTitle("HR Manager and Payroll System - Main Menu");
-            // Set the new scene on the stage
-            stage.setScene(scene);
-        } catch (IOException e) {
-            e.printStackTrace();
+    /**
+     * Imports employees from a CSV file chosen by the user.
+     * The file is read, validated and added on a background thread, a chunk of valid employees at a time,
+     * while the table keeps responding and shows the added employees as they come in. Invalid lines are written to a ".rejects.csv" file next to the chosen file.
+     */
+    @FXML
+    private void importEmployeesMethod() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Import Employees");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV Files", "*.csv"));
+        File file = fileChooser.showOpenDialog(employeeTable.getScene().getWindow());
+        if (file == null) {
+            return;
         }
+        Path source = file.toPath();
+        Path rejectFile = source.resolveSibling(file.getName().replaceFirst("\\.csv$", "") + ".rejects.csv");
+        importEmployees.setDisable(true);
+        Thread importThread = new Thread(() -> {
+            String message = "Could not import " + file.getName();
+            try {
+                // Chunks are added on this thread; the table picks them up in batches on the JavaFX thread
+                EmployeeImporter.Result result = EmployeeImporter.importCsv(source, rejectFile, EmployeeManager::addEmployees);
+                message = "Imported " + result.getImported() + " employees";
+                if (result.getRejected() > 0) {
+                    message += "\n" + result.getRejected() + " invalid rows were written to " + result.getRejectFile();
+                }
+            } catch (IOException | RuntimeException e) {
+                // The chunks added before the failure stay added
+                if (e.getMessage() != null) {
+                    message += ": " + e.getMessage();
+                }
+            } finally {
+                // Whatever happened, the button comes back and the user is told
+                String alert = message;
+                Platform.runLater(() -> {
+                    importEmployees.setDisable(false);
+                    Utilities.showAlert("Alert", alert);
+                });
+            }
+        }, "employee-import");
+        importThread.setDaemon(true);
+        importThread.start();
     }
 
     /**
      * Deletes the selected employee from the employee management system.
-     * If an employee is selected, it removes the employee from the list, refreshes the table,
+     * If an employee is selected, it removes the employee from the list, which removes its row from the table,
      * removes the employee from all departments, and displays a success message.
      * If no employee is selected, it displays an alert message to select an employee.
      */
@@ -173,12 +173,12 @@ public class EmployeeManagementController {
     private void deleteEmployeeMethod() {
         Employee selectedEmployee = employeeTable.getSelectionModel().getSelectedItem();
         if (selectedEmployee != null) {
-            // Remove the selected employee from the list
-            EmployeeManager.getEmployeeList().remove(selectedEmployee);
-            // Refresh the table
-            employeeTable.setItems(FXCollections.observableArrayList(EmployeeManager.getEmployeeList()));
-            // Remove employee from department
-            EmployeeManager.removeEmployeeFromAllDepartments(selectedEmployee);
+            // Remove the selected employee from the list and its department; the table shows the list and updates itself
+            EmployeeManager.deleteEmployee(selectedEmployee);
+            if (employeeTable.getItems() != EmployeeManager.getEmployeeList()) {
+                // Search results are a copy of the matches, so the row is taken out of them too
+                employeeTable.getItems().remove(selectedEmployee);
+            }
             Utilities.showAlert("Alert", "Successfully deleted Employee");
         } else {
             Utilities.showAlert("Alert", "Please select an employee to delete.");
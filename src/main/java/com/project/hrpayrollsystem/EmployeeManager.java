@@ -1,27 +1,117 @@
 package com.project.hrpayrollsystem;
 
-import javafx.collections.FXCollections;
+import javafx.application.Platform;
 import javafx.collections.ObservableList;
 
-import java.io.*;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class EmployeeManager implements Serializable {
 
     private static final long serialVersionUID = 1L;
     private static final String DATA_FILE_PATH = "./src/main/resources/com/project/hrpayrollsystem/data/Employees.data";
+    private static final String JOURNAL_FILE_PATH = "./src/main/resources/com/project/hrpayrollsystem/data/Employees.journal";
+    // One data file per pay period, named after the period, e.g. 2024-03.data
+    private static final String PAY_PERIODS_PATH = "./src/main/resources/com/project/hrpayrollsystem/data/PayPeriods";
+    // Number of journal entries after which the journal is folded into the data file
+    private static final int COMPACT_AFTER_ENTRIES = 10_000;
 
-    private static ObservableList<Employee> employeeList = FXCollections.observableArrayList();
-    private static Map<String, Department> departmentMap = new HashMap<>();
+    // Set -Dhrpayroll.storage=mapped to memory-map the data file instead of reading its records into the heap,
+    // or -Dhrpayroll.storage=offheap to read them into memory outside the heap
+    private static final boolean MAPPED_STORAGE = "mapped".equals(System.getProperty("hrpayroll.storage"));
+    private static final boolean OFF_HEAP_STORAGE = "offheap".equals(System.getProperty("hrpayroll.storage"));
+
+    // The records of all employees, which any thread may read and change; every change is passed to recordChange
+    private static final EmployeeRepository repository = new EmployeeRepository(EmployeeManager::recordChange);
+    // Creates employee views a page at a time as they are shown, so only the records of the roster stay on the heap.
+    // It follows the repository on the JavaFX thread, taking the changes queued since its last update in one batch.
+    private static final LazyEmployeeList employeeList = new LazyEmployeeList();
+    private static final Queue<ListChange> pendingListChanges = new ConcurrentLinkedQueue<>();
+    private static final AtomicBoolean listUpdateScheduled = new AtomicBoolean();
+    // Set once a failed journal has been handled, by saving every employee and telling the user
+    private static final AtomicBoolean journalFailureHandled = new AtomicBoolean();
+    private static final Map<String, Department> departmentMap = new ConcurrentHashMap<>();
+    // The same departments by department code, so grouping employees by department never compares names
+    private static volatile Department[] departmentsByCode = new Department[0];
+    // The totals of every employee, whatever their department, kept up to date change by change like the departments'
+    private static volatile PayrollTotals companyTotals = new PayrollTotals();
+    // Counts the changes made to the totals, so screens showing them can tell whether they need to be drawn again
+    private static final LongAdder totalsChanges = new LongAdder();
+    // The pay periods paid since the application started; they share their unchanged records with the repository
+    private static final Map<YearMonth, PayPeriodSnapshot> payPeriods = new ConcurrentHashMap<>();
+    // Built from the employee records when first needed, so mapped storage does not decode every name at startup.
+    // The index, the build and the backlog are guarded by indexLock, which is never held while waiting for a build.
+    private static final Object indexLock = new Object();
+    private static volatile EmployeeIndex index;
+    // The index being built in the background, and the changes to apply to it once it is ready
+    private static CompletableFuture<EmployeeIndex> indexBuild;
+    private static final List<Consumer<EmployeeIndex>> indexBacklog = new ArrayList<>();
+
+    private static volatile EmployeeJournal journal;
+    private static final AtomicInteger journalEntries = new AtomicInteger();
+    private static final ExecutorService compactor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "employee-data-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * A change to an employee that the employee list has yet to show.
+     */
+    private static final class ListChange {
+        private final byte operation;
+        private final EmployeeRecord record;
+
+        private ListChange(byte operation, EmployeeRecord record) {
+            this.operation = operation;
+            this.record = record;
+        }
+
+        /**
+         * Combines this change with a later change to the same employee into the change the list needs to make
+         * for both, or null if the two cancel out.
+         */
+        private ListChange followedBy(ListChange later) {
+            if (operation == EmployeeJournal.ADD) {
+                // The list has not shown the employee yet
+                return later.operation == EmployeeJournal.DELETE ? null : new ListChange(EmployeeJournal.ADD, later.record);
+            }
+            return later.operation == EmployeeJournal.DELETE ? later : new ListChange(EmployeeJournal.UPDATE, later.record);
+        }
+    }
 
     static {
         // Initialize the departments
         initializeDepartments();
         // Load employee data on application start
         deserializeEmployeeData();
+        // Record every change from now on in the journal
+        openJournal();
     }
 
     /**
@@ -29,19 +119,27 @@ public class EmployeeManager implements Serializable {
      * This method adds predefined departments to the departmentMap.
      */
     private static void initializeDepartments() {
-        departmentMap.put("Development Team", new Department("Development Team"));
-        departmentMap.put("Accounting", new Department("Accounting"));
-        departmentMap.put("Human Resources (HR)", new Department("Human Resources (HR)"));
-        departmentMap.put("Marketing", new Department("Marketing"));
-        departmentMap.put("Sales", new Department("Sales"));
-        departmentMap.put("Information Technology (IT)", new Department("Information Technology (IT)"));
-        departmentMap.put("Quality Assurance (QA)", new Department("Quality Assurance (QA)"));
-        departmentMap.put("Project Management", new Department("Project Management"));
-        departmentMap.put("Research and Development (R&D)", new Department("Research and Development (R&D)"));
+        // The predefined departments have the first codes, in the same order
+        Department[] byCode = new Department[EmployeeCodes.DEPARTMENTS.size()];
+        for (String name : EmployeeCodes.DEPARTMENTS) {
+            Department department = new Department(name);
+            departmentMap.put(name, department);
+            byCode[EmployeeCodes.departmentCode(name)] = department;
+        }
+        departmentsByCode = byCode;
     }
 
     /**
-     * Retrieves the list of employees.
+     * Returns the department of a department code, or null if the code is not one of a predefined department.
+     */
+    private static Department departmentOf(int departmentCode) {
+        Department[] byCode = departmentsByCode;
+        return departmentCode < byCode.length ? byCode[departmentCode] : null;
+    }
+
+    /**
+     * Retrieves the list of employees, to be used on the JavaFX thread only.
+     * Changes made on other threads show in it in batches, once the JavaFX thread gets to them.
      *
      * @return the ObservableList of employees
      */
@@ -50,43 +148,242 @@ public class EmployeeManager implements Serializable {
     }
 
     /**
-     * Adds an employee to a department.
-     * If the department exists, the employee is added to it.
+     * Retrieves an immutable point-in-time snapshot of the records of all employees, without creating views or copying records.
+     * It may be taken and read on any thread; changes made while it is read, such as during a pay run, do not show in it.
      *
-     * @param employee       the employee to be added
-     * @param departmentName the name of the department
+     * @return the employee records, stored employees in file order and then added employees in the order they were added
      */
-    public static void addEmployeeToDepartment(Employee employee, String departmentName) {
-        Department department = departmentMap.get(departmentName);
-        // if the department exists
-        if (department != null) {
-            department.addEmployee(employee);
+    public static List<EmployeeRecord> getEmployeeRecords() {
+        return repository.snapshot();
+    }
+
+    /**
+     * Takes a snapshot of the records of all employees for paying a pay period, and keeps it as the period's snapshot,
+     * replacing any taken before. The snapshot is written to the period's file in the background,
+     * so the period can be paid again with the same records after a restart.
+     * Taking it costs milliseconds even for a large roster, as it shares the records with the repository.
+     *
+     * @param period the pay period to pay
+     * @return the snapshot of the period
+     */
+    public static PayPeriodSnapshot snapshotPayPeriod(YearMonth period) {
+        PayPeriodSnapshot snapshot = new PayPeriodSnapshot(period, repository.snapshot());
+        payPeriods.put(period, snapshot);
+        compactor.execute(() -> {
+            try {
+                Files.createDirectories(Path.of(PAY_PERIODS_PATH));
+                EmployeeDataFile.write(payPeriodPath(period), snapshot.getRecords());
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        });
+        return snapshot;
+    }
+
+    /**
+     * Retrieves the snapshot a pay period was last paid with, from memory or from the period's file.
+     *
+     * @param period the pay period
+     * @return the snapshot of the period, or null if the period has not been paid
+     * @throws IOException if the period's file cannot be read
+     */
+    public static PayPeriodSnapshot getPayPeriodSnapshot(YearMonth period) throws IOException {
+        PayPeriodSnapshot snapshot = payPeriods.get(period);
+        if (snapshot != null) {
+            return snapshot;
         }
+        Path path = payPeriodPath(period);
+        // Not kept in memory, as a snapshot read back shares nothing with the repository
+        return Files.exists(path) ? new PayPeriodSnapshot(period, EmployeeDataFile.read(path)) : null;
+    }
+
+    /**
+     * Lists the pay periods that have been paid, in this session or before.
+     *
+     * @return the paid pay periods, oldest first
+     */
+    public static List<YearMonth> getPayPeriods() {
+        Set<YearMonth> periods = new TreeSet<>(payPeriods.keySet());
+        Path directory = Path.of(PAY_PERIODS_PATH);
+        if (Files.isDirectory(directory)) {
+            try (Stream<Path> files = Files.list(directory)) {
+                files.map(file -> file.getFileName().toString())
+                        .filter(name -> name.endsWith(".data"))
+                        .forEach(name -> {
+                            try {
+                                periods.add(YearMonth.parse(name.substring(0, name.length() - ".data".length())));
+                            } catch (DateTimeParseException e) {
+                                // Not a pay period file
+                            }
+                        });
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        return new ArrayList<>(periods);
+    }
+
+    /**
+     * Finds the record of an employee by ID.
+     *
+     * @param id the employee ID
+     * @return the employee record, or null if no employee has that ID
+     */
+    public static EmployeeRecord findEmployeeRecord(int id) {
+        return repository.get(id);
+    }
+
+    /**
+     * Finds the employees whose first or last name starts with the given prefix, ignoring case.
+     *
+     * @param prefix the start of the name
+     * @param limit  the maximum number of IDs to return
+     * @return the IDs of the matching employees
+     */
+    public static List<Integer> findEmployeeIdsByName(String prefix, int limit) {
+        EmployeeIndex employeeIndex = index();
+        synchronized (indexLock) {
+            return employeeIndex.findByNamePrefix(prefix, limit);
+        }
+    }
+
+    /**
+     * Finds the employees matching a search query by their ID, first name, last name or department, see
+     * {@link EmployeeIndex#search}.
+     *
+     * @param query the search text
+     * @param limit the maximum number of employees to return
+     * @return the matching employees
+     */
+    public static List<Employee> searchEmployees(String query, int limit) {
+        EmployeeIndex employeeIndex = index();
+        List<Integer> ids;
+        synchronized (indexLock) {
+            ids = employeeIndex.search(query, limit, departmentMap.values());
+        }
+        List<Employee> employees = new ArrayList<>(ids.size());
+        for (int id : ids) {
+            Employee employee = employeeList.getById(id);
+            if (employee != null) {
+                employees.add(employee);
+            }
+        }
+        return employees;
+    }
+
+    /**
+     * Returns the payroll totals of the whole company as they are now. The totals are kept up to date as employees
+     * are added, changed and deleted, so this does not go over the employees.
+     *
+     * @return a copy of the company totals
+     */
+    public static PayrollTotals getCompanyTotals() {
+        return companyTotals.copy();
+    }
+
+    /**
+     * Returns a number that changes each time an employee is added, changed or deleted, or the employees are loaded.
+     * Comparing it with the number seen before tells whether the company and department totals may have changed
+     * since, without reading them.
+     *
+     * @return the count of changes to the totals
+     */
+    public static long getTotalsVersion() {
+        return totalsChanges.sum();
     }
 
     /**
-     * Removes the given employee from all departments.
+     * Returns the predefined departments, in the order of {@link EmployeeCodes#DEPARTMENTS}.
      *
-     * @param employee the employee to be removed
+     * @return the departments
      */
-    public static void removeEmployeeFromAllDepartments(Employee employee) {
-        for (Department department : departmentMap.values()) {
-            department.removeEmployee(employee);
+    public static List<Department> getDepartments() {
+        return List.of(departmentsByCode);
+    }
+
+    /**
+     * Retrieves a department by name.
+     *
+     * @param departmentName the name of the department
+     * @return the department, or null if there is no department with that name
+     */
+    public static Department getDepartment(String departmentName) {
+        return departmentMap.get(departmentName);
+    }
+
+    /**
+     * Adds a new employee to the employee list, its department and the index and records the addition in the journal.
+     * May be called from any thread.
+     *
+     * @param employee the employee to add
+     */
+    public static void addEmployee(Employee employee) {
+        repository.put(employee.getRecord());
+        changed();
+    }
+
+    /**
+     * Adds new employees to the employee list, giving each a new ID,
+     * and adds them to their departments and the index and records the additions in the journal.
+     * The IDs of the batch are reserved as one block, in the order of the records.
+     * May be called from any thread, such as an importer's; the list shows the batch as a single change.
+     * If one of the employees cannot be added, none is.
+     *
+     * @param records the records of the new employees; their IDs are replaced
+     * @return the records of the added employees, with their new IDs
+     * @throws ArithmeticException if adding the batch would overflow the payroll totals
+     */
+    public static List<EmployeeRecord> addEmployees(List<EmployeeRecord> records) {
+        List<EmployeeRecord> added = new ArrayList<>(records.size());
+        if (records.isEmpty()) {
+            return added;
+        }
+        int nextId = Employee.reserveIds(records.size());
+        for (EmployeeRecord record : records) {
+            added.add(record.withId(nextId++));
+        }
+        try {
+            repository.putAll(added);
+        } finally {
+            // Also after a rejected batch, whose added and deleted employees are queued for the list as well
+            changed();
         }
+        return added;
+    }
+
+    /**
+     * Records that an employee was changed, so that the change is kept until the employee data is saved
+     * and is written to the journal. The index is updated and the employee's old figures are replaced by the new ones
+     * in the department totals, moving the employee to its new department if that changed.
+     * An employee that was deleted in the meantime stays deleted. May be called from any thread.
+     *
+     * @param employee the changed employee
+     */
+    public static void updateEmployee(Employee employee) {
+        repository.replace(employee.getRecord());
+        changed();
+    }
+
+    /**
+     * Removes an employee from the employee list, its department and the index and records the deletion in the journal.
+     * May be called from any thread.
+     *
+     * @param employee the employee to delete
+     */
+    public static void deleteEmployee(Employee employee) {
+        repository.remove(employee.getRecord().getId());
+        changed();
     }
 
     /**
      * Serializes the employee data to a file.
-     * This method writes the employeeList to a file using serialization.
-     * @throws IOException if an I/O error occurs while writing to the file.
+     * This method writes the records of the employeeList to the binary employee data file,
+     * in the mapped layout when mapped storage is enabled.
      */
     public static void serializeEmployeeData() {
         // Serialize the employee data to a file
-        try (ObjectOutputStream outputStream = new ObjectOutputStream(new FileOutputStream(DATA_FILE_PATH))) {
-            // Create a serializable list from the employeeList
-            List<Employee> serializableList = new ArrayList<>(employeeList);
-            // Write the serializable list to the file
-            outputStream.writeObject(serializableList);
+        try {
+            writeSnapshot(getEmployeeRecords(), Employee.getReservedIdsThrough());
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -94,24 +391,477 @@ public class EmployeeManager implements Serializable {
 
     /**
      * Deserializes the employee data from a file and updates the employeeList with the deserialized data.
+     * Changes recorded in the journal since the file was written are replayed on top of it.
+     * New employee IDs continue above both the highest ID handed out when the file was written
+     * and the highest ID in the file and the journal.
+     * Files in the old Java serialization format are migrated automatically.
      * If the file doesn't exist, it creates an empty list and saves it.
      */
-    @SuppressWarnings("unchecked")
     public static void deserializeEmployeeData() {
+        Path path = Path.of(DATA_FILE_PATH);
         // Check if  the file exists already
-        try (ObjectInputStream inputStream = new ObjectInputStream(new FileInputStream(DATA_FILE_PATH))) {
-            // Read the object from the file
-            Object object = inputStream.readObject();
-            // Check if the object is an instance of List
-            if (object instanceof List) {
-                // Update the employeeList with the deserialized data
-                employeeList = FXCollections.observableArrayList((List<Employee>) object);
-            }
-        } catch (FileNotFoundException e) {
+        if (!Files.exists(path)) {
             // If the file doesn't exist, create an empty list and save it
             serializeEmployeeData();
-        } catch (IOException | ClassNotFoundException e) {
+        }
+        try {
+            Map<Integer, EmployeeRecord> changes = new LinkedHashMap<>();
+            journalEntries.set(EmployeeJournal.replay(Path.of(JOURNAL_FILE_PATH), (operation, record) ->
+                    changes.put(record.getId(), operation == EmployeeJournal.DELETE ? null : record)));
+            // Read before loading, which may convert the file to the other layout
+            int maxId = EmployeeDataFile.readReservedIds(path);
+            for (Integer id : changes.keySet()) {
+                maxId = Math.max(maxId, id);
+            }
+            maxId = Math.max(maxId, load(path, changes));
+            Employee.reserveIdsThrough(maxId);
+            // Rebuild the departments from the loaded employees, and the index when it is next used
+            rebuildDepartments();
+            synchronized (indexLock) {
+                index = null;
+                indexBuild = null;
+                indexBacklog.clear();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Writes the remaining journal entries to disk and closes the journal.
+     * Called when the application exits; the data file itself is only rewritten by compaction, unless the journal
+     * failed, in which case every employee is written to it so the changes the journal lost are kept.
+     * Changes still being made on other threads finish and are written first; changes made afterwards are not journaled.
+     */
+    public static void closeJournal() {
+        boolean[] failed = {false};
+        repository.whileLocked(() -> {
+            if (journal != null) {
+                try {
+                    journal.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                    failed[0] = true;
+                }
+                journal = null;
+            }
+        });
+        if (failed[0]) {
+            // On the compactor thread, after any snapshot it is still writing
+            CompletableFuture.runAsync(EmployeeManager::saveWithoutJournal, compactor).join();
+        }
+    }
+
+    /**
+     * Folds the journal into the data file.
+     * The journal is rotated and a point-in-time copy of the records is written to the data file on the compactor thread;
+     * the rotated journal is deleted once the new data file is in place.
+     * Changes are journaled while their employee is locked, so every change in the rotated journal is in the copy,
+     * which is taken after the rotation; changes in both are simply applied again on the next load.
+     * If the data file cannot be written, the rotated journal is kept and folded in by the next compaction.
+     */
+    public static void compactJournal() {
+        EmployeeJournal journal = EmployeeManager.journal;
+        if (journal == null || journal.hasFailed() || !journal.rotate()) {
+            // A previous compaction is still being written, or the journal failed and every employee is saved instead
+            return;
+        }
+        journalEntries.set(0);
+        List<EmployeeRecord> snapshot = getEmployeeRecords();
+        // IDs handed out after this point are in the new journal
+        int reservedIds = Employee.getReservedIdsThrough();
+        compactor.execute(() -> {
+            try {
+                writeSnapshot(snapshot, reservedIds);
+                journal.deleteRotated();
+            } catch (IOException e) {
+                e.printStackTrace();
+                // The ".old" journal stays and is folded in by the next compaction
+                try {
+                    journal.abandonRotation();
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    /**
+     * Returns whether the employee index is built, so lookups and searches answer without building it first.
+     *
+     * @return true if the index is ready
+     */
+    public static boolean isIndexReady() {
+        return index != null;
+    }
+
+    /**
+     * Starts building the employee index in the background unless it is built or being built already.
+     * Building the index of a large roster takes a while, so screens that search start it before the first query.
+     *
+     * @param onReady run on the JavaFX thread once the index is ready
+     */
+    public static void prepareIndex(Runnable onReady) {
+        CompletableFuture<EmployeeIndex> build = startIndexBuild();
+        if (build == null) {
+            onReady.run();
+            return;
+        }
+        build.whenComplete((built, e) -> Platform.runLater(() -> {
+            if (e != null) {
+                e.printStackTrace();
+            }
+            boolean current;
+            synchronized (indexLock) {
+                // The employees may have been reloaded in the meantime
+                current = indexBuild == build || index != null;
+            }
+            if (current) {
+                index();
+                onReady.run();
+            }
+        }));
+    }
+
+    /**
+     * Starts building the index in the background unless it is built or being built already.
+     * From then on changes are kept in the backlog, and the build takes its snapshot of the records afterwards,
+     * so every change is either in the snapshot or in the backlog; changes in both are simply applied again.
+     *
+     * @return the build, or null if the index is built
+     */
+    private static CompletableFuture<EmployeeIndex> startIndexBuild() {
+        synchronized (indexLock) {
+            if (index == null && indexBuild == null) {
+                indexBuild = CompletableFuture.supplyAsync(() -> EmployeeIndex.of(repository.snapshot()));
+            }
+            return index == null ? indexBuild : null;
+        }
+    }
+
+    /**
+     * Returns the employee index, waiting for it to be built first if it is not ready.
+     * Reading the index must be done holding indexLock, as changes are applied to it from any thread.
+     */
+    private static EmployeeIndex index() {
+        CompletableFuture<EmployeeIndex> build = startIndexBuild();
+        if (build == null) {
+            return index;
+        }
+        EmployeeIndex built;
+        try {
+            built = build.join();
+        } catch (CompletionException e) {
+            synchronized (indexLock) {
+                // The next lookup starts a new build
+                if (indexBuild == build) {
+                    indexBuild = null;
+                    indexBacklog.clear();
+                }
+            }
+            throw e;
+        }
+        synchronized (indexLock) {
+            if (indexBuild == build) {
+                indexBacklog.forEach(change -> change.accept(built));
+                indexBacklog.clear();
+                indexBuild = null;
+                index = built;
+            }
+            return index != null ? index : built;
+        }
+    }
+
+    /**
+     * Applies a change to the employee index, or keeps it for when the index that is being built is ready.
+     */
+    private static void updateIndex(Consumer<EmployeeIndex> change) {
+        synchronized (indexLock) {
+            if (index != null) {
+                change.accept(index);
+            } else if (indexBuild != null) {
+                indexBacklog.add(change);
+            }
+        }
+    }
+
+    /**
+     * Replaces the departments with new ones holding the current employees and their totals.
+     */
+    private static void rebuildDepartments() {
+        initializeDepartments();
+        PayrollTotals totals = new PayrollTotals();
+        // Read the figures from the store columns, without decoding every name
+        repository.snapshot().forEachPayFigures((id, departmentCode, wageCents, hoursHundredths, bonusCents) -> {
+            totals.add(wageCents, hoursHundredths, bonusCents);
+            Department department = departmentOf(departmentCode);
+            if (department != null) {
+                department.addEmployee(id, wageCents, hoursHundredths, bonusCents);
+            }
+        });
+        companyTotals = totals;
+        totalsChanges.increment();
+    }
+
+    /**
+     * Applies a change made to the repository to the company and department totals, the departments, the pay result
+     * cache and the index, records it in the journal and queues it for the employee list. Called by the repository
+     * while the employee is locked, so changes to one employee arrive in order; it must not wait for anything that
+     * waits for the repository.
+     */
+    private static void recordChange(EmployeeRecord previous, EmployeeRecord current) {
+        // Calculated before anything changes, as this is what fails on amounts too large for the totals; the
+        // repository then puts the employee back as they were
+        PayrollTotals.Contribution previousPay = previous != null ? PayrollTotals.Contribution.of(previous) : null;
+        PayrollTotals.Contribution currentPay = current == null ? null
+                : previous != null && PayResultCache.samePayFigures(previous, current) ? previousPay
+                : PayrollTotals.Contribution.of(current);
+        // The company totals change first and entirely or not at all; a department's totals cover some of the same
+        // employees, so they fit wherever the company's do
+        companyTotals.replace(previousPay, currentPay);
+        if (previous != null && current != null && previous.getDepartmentCode() == current.getDepartmentCode()) {
+            updateInDepartment(current, previousPay, currentPay);
+        } else {
+            if (previous != null) {
+                removeFromDepartment(previous, previousPay);
+            }
+            if (current != null) {
+                addToDepartment(current, currentPay);
+            }
+        }
+        // Counted once all the totals include the change
+        totalsChanges.increment();
+        if (previous != null && (current == null || !PayResultCache.samePayFigures(previous, current))) {
+            PayrollEngine.invalidateResult(previous.getId());
+        }
+        if (current != null) {
+            updateIndex(employeeIndex -> employeeIndex.put(current));
+        } else {
+            updateIndex(employeeIndex -> employeeIndex.remove(previous.getId()));
+        }
+        byte operation = previous == null ? EmployeeJournal.ADD : current == null ? EmployeeJournal.DELETE : EmployeeJournal.UPDATE;
+        EmployeeRecord record = current != null ? current : previous;
+        EmployeeJournal journal = EmployeeManager.journal;
+        if (journal != null) {
+            try {
+                journal.append(operation, record);
+                journalEntries.incrementAndGet();
+            } catch (IOException e) {
+                // The change stands; once it is made, changed() saves every employee in place of the journal
+            }
+        }
+        pendingListChanges.add(new ListChange(operation, record));
+    }
+
+    /**
+     * Finishes a change once the repository is no longer locked: starts a compaction when enough changes have built up,
+     * and brings the employee list up to date, right away on the JavaFX thread and otherwise on its next pulse.
+     */
+    private static void changed() {
+        EmployeeJournal journal = EmployeeManager.journal;
+        if (journal != null && journal.hasFailed() && journalFailureHandled.compareAndSet(false, true)) {
+            compactor.execute(EmployeeManager::saveWithoutJournal);
+            Platform.runLater(() -> Utilities.showAlert("Alert", "Employee changes can no longer be written to the journal."
+                    + " All employees are being saved to the data file instead and will be saved again when the"
+                    + " application closes; changes made in between are lost if it does not close normally."));
+        }
+        if (journalEntries.get() >= COMPACT_AFTER_ENTRIES) {
+            compactJournal();
+        }
+        if (Platform.isFxApplicationThread()) {
+            updateEmployeeList();
+        } else if (listUpdateScheduled.compareAndSet(false, true)) {
+            // One update for all the changes made until it runs
+            Platform.runLater(EmployeeManager::updateEmployeeList);
+        }
+    }
+
+    /**
+     * Applies the queued changes to the employee list as a single change, on the JavaFX thread.
+     * Several changes to the same employee are combined first, so an employee added and changed since the last update
+     * is added once with its latest record.
+     */
+    private static void updateEmployeeList() {
+        // Cleared before taking the changes, so a change queued from now on schedules another update
+        listUpdateScheduled.set(false);
+        Map<Integer, ListChange> batch = new LinkedHashMap<>();
+        for (ListChange change; (change = pendingListChanges.poll()) != null; ) {
+            ListChange earlier = batch.get(change.record.getId());
+            ListChange combined = earlier == null ? change : earlier.followedBy(change);
+            if (combined == null) {
+                batch.remove(change.record.getId());
+            } else {
+                batch.put(change.record.getId(), combined);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Employee> added = new ArrayList<>();
+        employeeList.applyChanges(() -> {
+            for (ListChange change : batch.values()) {
+                if (change.operation == EmployeeJournal.ADD) {
+                    added.add(new Employee(change.record));
+                    continue;
+                }
+                int index = employeeList.indexOfId(change.record.getId());
+                if (index < 0) {
+                    continue;
+                }
+                if (change.operation == EmployeeJournal.DELETE) {
+                    employeeList.remove(index);
+                } else {
+                    Employee employee = employeeList.get(index);
+                    if (employee.getRecord() != change.record) {
+                        // Changed on another thread; the view shown is refreshed in place
+                        employee.setRecord(change.record);
+                    }
+                    employeeList.markChanged(employee);
+                }
+            }
+            // In ID order, like the added employees of a snapshot, whichever stripes the batch was stored in first
+            added.sort(Comparator.comparingInt(employee -> employee.getRecord().getId()));
+            employeeList.addAll(added);
+        });
+    }
+
+    private static void addToDepartment(EmployeeRecord record, PayrollTotals.Contribution pay) {
+        Department department = departmentOf(record.getDepartmentCode());
+        if (department != null) {
+            department.addEmployee(record.getId(), pay);
+        }
+    }
+
+    private static void updateInDepartment(EmployeeRecord record, PayrollTotals.Contribution previous,
+                                           PayrollTotals.Contribution current) {
+        Department department = departmentOf(record.getDepartmentCode());
+        if (department != null) {
+            department.updateEmployee(record.getId(), previous, current);
+        }
+    }
+
+    private static void removeFromDepartment(EmployeeRecord record, PayrollTotals.Contribution pay) {
+        Department department = departmentOf(record.getDepartmentCode());
+        if (department != null) {
+            department.removeEmployee(record.getId(), pay);
+        }
+    }
+
+    private static void openJournal() {
+        // A rotated journal left by a crash during compaction has been replayed; fold it into the data file before
+        // journaling again. Its changes that are also in the current journal are simply applied again on the next load.
+        Path rotated = EmployeeJournal.rotatedPath(Path.of(JOURNAL_FILE_PATH));
+        if (Files.exists(rotated)) {
+            try {
+                writeSnapshot(getEmployeeRecords(), Employee.getReservedIdsThrough());
+                Files.delete(rotated);
+            } catch (IOException e) {
+                // The next compaction folds it in instead
+                e.printStackTrace();
+            }
+        }
+        try {
+            journal = new EmployeeJournal(Path.of(JOURNAL_FILE_PATH));
+            if (journalEntries.get() >= COMPACT_AFTER_ENTRIES) {
+                compactJournal();
+            }
+        } catch (IOException e) {
             e.printStackTrace();
         }
     }
-}
\ No newline at end of file
+
+    private static Path payPeriodPath(YearMonth period) {
+        return Path.of(PAY_PERIODS_PATH, period + ".data");
+    }
+
+    /**
+     * Writes every employee to the data file in place of a failed journal, then deletes the journal files, so the
+     * changes the journal lost are kept and its older entries are not replayed over them on the next load.
+     * Runs on the compactor thread, so it never writes the data file at the same time as a compaction.
+     */
+    private static void saveWithoutJournal() {
+        try {
+            writeSnapshot(getEmployeeRecords(), Employee.getReservedIdsThrough());
+            Path journalPath = Path.of(JOURNAL_FILE_PATH);
+            Files.deleteIfExists(EmployeeJournal.rotatedPath(journalPath));
+            Files.deleteIfExists(journalPath);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static void writeSnapshot(List<EmployeeRecord> records, int reservedIds) throws IOException {
+        if (MAPPED_STORAGE) {
+            MappedEmployeeStore.write(Path.of(DATA_FILE_PATH), records, reservedIds);
+        } else {
+            EmployeeDataFile.write(Path.of(DATA_FILE_PATH), records, reservedIds);
+        }
+    }
+
+    /**
+     * Loads the data file into the employee list, applying the journal changes on top of the stored records.
+     * Returns the highest employee ID loaded.
+     */
+    private static int load(Path path, Map<Integer, EmployeeRecord> changes) throws IOException {
+        // Employee views are created when they are first shown
+        EmployeeStore store = MAPPED_STORAGE ? MappedEmployeeStore.open(path)
+                : OFF_HEAP_STORAGE ? OffHeapEmployeeStore.read(path)
+                : new HeapEmployeeStore(EmployeeDataFile.read(path));
+        employeeList.load(store);
+        int[] ids = new int[store.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = store.idAt(i);
+        }
+        int maxId = assignUniqueIds(ids);
+        repository.load(store, ids, changes);
+
+        for (int row = 0; row < ids.length; row++) {
+            boolean renumbered = ids[row] != store.idAt(row);
+            if (!renumbered && !changes.containsKey(ids[row])) {
+                continue;
+            }
+            int index = employeeList.indexOfRow(row);
+            EmployeeRecord record = changes.containsKey(ids[row]) ? changes.remove(ids[row]) : store.recordAt(row).withId(ids[row]);
+            if (record == null) {
+                employeeList.remove(index);
+            } else {
+                employeeList.set(index, new Employee(record));
+            }
+        }
+        for (EmployeeRecord record : changes.values()) {
+            if (record != null) {
+                employeeList.add(new Employee(record));
+            }
+        }
+        return maxId;
+    }
+
+    /**
+     * Gives employees that share an ID with an earlier employee a new ID above the highest one in use.
+     * Older versions restarted IDs at 1 on every launch, so their data files can contain the same ID twice.
+     * The new IDs only depend on the order of the file, so journal entries written for them match again on the next load.
+     *
+     * @param ids the employee IDs in file order, updated in place
+     * @return the highest ID in use afterwards
+     */
+    private static int assignUniqueIds(int[] ids) {
+        int[] sorted = ids.clone();
+        Arrays.sort(sorted);
+        int maxId = sorted.length == 0 ? 0 : sorted[sorted.length - 1];
+        boolean duplicates = false;
+        for (int i = 1; i < sorted.length && !duplicates; i++) {
+            duplicates = sorted[i] == sorted[i - 1];
+        }
+        if (duplicates) {
+            Set<Integer> seen = new HashSet<>();
+            for (int i = 0; i < ids.length; i++) {
+                if (!seen.add(ids[i])) {
+                    ids[i] = ++maxId;
+                }
+            }
+        }
+        return maxId;
+    }
+}
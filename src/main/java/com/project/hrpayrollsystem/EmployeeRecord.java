@@ -0,0 +1,124 @@
+package com.project.hrpayrollsystem;
+
+/**
+ * The EmployeeRecord class holds the core data of an employee with its numbers stored as primitives.
+ * Wage and bonus are stored in cents and hours in hundredths of an hour (see {@link FixedPoint}),
+ * so payroll calculations never have to parse text. The department and the bonus are held as codes into the shared
+ * dictionaries of {@link EmployeeCodes}, so records of the same department share its name.
+ * Records are immutable; every change produces a new record.
+ * The JavaFX properties the tables bind to are provided by the {@link Employee} view.
+ */
+public final class EmployeeRecord {
+
+    // The largest pay figures accepted from the user: an hourly wage of $100,000, every hour of a leap year and a
+    // bonus of $10 million. Totals over any realistic roster of such employees stay far from overflowing a long.
+    public static final long MAX_WAGE_CENTS = 100_000_00L;
+    public static final long MAX_HOURS_HUNDREDTHS = 8_784_00L;
+    public static final long MAX_BONUS_CENTS = 10_000_000_00L;
+
+    private final int id;
+    private final String firstName;
+    private final String lastName;
+    private final int departmentCode;
+    private final int bonusCode;
+    private final long wageCents;
+    private final long hoursHundredths;
+
+    /**
+     * Constructs an employee record.
+     *
+     * @param id              the employee ID
+     * @param firstName       the first name
+     * @param lastName        the last name
+     * @param department      the department name
+     * @param wageCents       the hourly wage in cents
+     * @param hoursHundredths the hours worked in hundredths of an hour
+     * @param bonusCents      the bonus in cents
+     */
+    public EmployeeRecord(int id, String firstName, String lastName, String department,
+                          long wageCents, long hoursHundredths, long bonusCents) {
+        this(id, firstName, lastName, EmployeeCodes.departmentCode(department), wageCents, hoursHundredths,
+                EmployeeCodes.bonusCode(bonusCents));
+    }
+
+    private EmployeeRecord(int id, String firstName, String lastName, int departmentCode,
+                           long wageCents, long hoursHundredths, int bonusCode) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.departmentCode = departmentCode;
+        this.wageCents = wageCents;
+        this.hoursHundredths = hoursHundredths;
+        this.bonusCode = bonusCode;
+    }
+
+    /**
+     * Constructs an employee record from department and bonus codes that were already looked up, as when a data file
+     * is read and every distinct value is looked up once.
+     *
+     * @param id              the employee ID
+     * @param firstName       the first name
+     * @param lastName        the last name
+     * @param departmentCode  the department code, see {@link EmployeeCodes#departmentCode}
+     * @param wageCents       the hourly wage in cents
+     * @param hoursHundredths the hours worked in hundredths of an hour
+     * @param bonusCode       the bonus code, see {@link EmployeeCodes#bonusCode}
+     * @return the employee record
+     */
+    static EmployeeRecord ofCodes(int id, String firstName, String lastName, int departmentCode,
+                                  long wageCents, long hoursHundredths, int bonusCode) {
+        return new EmployeeRecord(id, firstName, lastName, departmentCode, wageCents, hoursHundredths, bonusCode);
+    }
+
+    /**
+     * Tells whether pay figures are within the ranges accepted from the user, from zero up to {@link #MAX_WAGE_CENTS},
+     * {@link #MAX_HOURS_HUNDREDTHS} and {@link #MAX_BONUS_CENTS}.
+     *
+     * @param wageCents       the hourly wage in cents
+     * @param hoursHundredths the hours worked in hundredths of an hour
+     * @param bonusCents      the bonus in cents
+     * @return true if every figure is in range
+     */
+    public static boolean isValidPay(long wageCents, long hoursHundredths, long bonusCents) {
+        return wageCents >= 0 && wageCents <= MAX_WAGE_CENTS
+                && hoursHundredths >= 0 && hoursHundredths <= MAX_HOURS_HUNDREDTHS
+                && bonusCents >= 0 && bonusCents <= MAX_BONUS_CENTS;
+    }
+
+    public int getId() { return id; }
+    public String getFirstName() { return firstName; }
+    public String getLastName() { return lastName; }
+    public String getDepartment() { return EmployeeCodes.department(departmentCode); }
+    public int getDepartmentCode() { return departmentCode; }
+    public long getWageCents() { return wageCents; }
+    public long getHoursHundredths() { return hoursHundredths; }
+    public long getBonusCents() { return EmployeeCodes.bonusCents(bonusCode); }
+    public int getBonusCode() { return bonusCode; }
+
+    public EmployeeRecord withId(int id) {
+        return new EmployeeRecord(id, firstName, lastName, departmentCode, wageCents, hoursHundredths, bonusCode);
+    }
+
+    public EmployeeRecord withName(String firstName, String lastName) {
+        return new EmployeeRecord(id, firstName, lastName, departmentCode, wageCents, hoursHundredths, bonusCode);
+    }
+
+    public EmployeeRecord withDepartment(String department) {
+        return new EmployeeRecord(id, firstName, lastName, EmployeeCodes.departmentCode(department), wageCents,
+                hoursHundredths, bonusCode);
+    }
+
+    public EmployeeRecord withPay(long wageCents, long hoursHundredths) {
+        return new EmployeeRecord(id, firstName, lastName, departmentCode, wageCents, hoursHundredths, bonusCode);
+    }
+
+    public EmployeeRecord withBonus(long bonusCents) {
+        return new EmployeeRecord(id, firstName, lastName, departmentCode, wageCents, hoursHundredths,
+                EmployeeCodes.bonusCode(bonusCents));
+    }
+
+    @Override
+    public String toString() {
+        return firstName + " " + lastName;
+    }
+}
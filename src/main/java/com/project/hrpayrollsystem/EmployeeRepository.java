@@ -0,0 +1,719 @@
+package com.project.hrpayrollsystem;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The current records of all employees, which any thread may read and change at the same time.
+ * <p>
+ * Every employee has a row: stored employees their store position, added employees the rows after those, handed out
+ * in the order they are added. The records start out as those of an {@link EmployeeStore}; only the rows changed
+ * since then hold a record, in a table of chunks of {@value #CHUNK_SIZE} rows. Employees are split into
+ * {@value #STRIPES} stripes by ID, each with its own read-write lock, so changes to employees in different stripes
+ * proceed in parallel and reading an employee only waits for a change to an employee of the same stripe.
+ * <p>
+ * {@link #snapshot()} gives an immutable point-in-time view of every employee, such as a pay run needs. It shares the
+ * chunks with the repository rather than copying the records: taking it read-locks all stripes just long enough to
+ * copy the references to the chunks, a few thousand for a million employees, and moves the repository on to a new
+ * generation. A chunk of an older generation is shared with a snapshot, so the first change to one of its rows
+ * replaces it with a copy and the snapshot keeps the old one. A snapshot therefore costs its chunk references plus
+ * the chunks changed while it is kept, and unchanged records are read from the store, which never changes.
+ */
+public class EmployeeRepository {
+
+    // A power of two, so the stripe of an ID is its low bits
+    private static final int STRIPES = 16;
+    private static final int CHUNK_SHIFT = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    // Stands in for a deleted employee in its row
+    private static final EmployeeRecord DELETED = EmployeeRecord.ofCodes(0, "", "", 0, 0, 0, 0);
+
+    /**
+     * Told about every change while the stripe of the changed employee is locked, so two changes to the same
+     * employee always reach the listener in the order they were made. A listener that throws rejects the change:
+     * the employee is put back as they were and the exception is passed on to whoever made the change.
+     */
+    public interface ChangeListener {
+        /**
+         * Called after an employee was added, changed or deleted.
+         *
+         * @param previous the record before the change, or null if the employee was added
+         * @param current  the record after the change, or null if the employee was deleted
+         */
+        void changed(EmployeeRecord previous, EmployeeRecord current);
+    }
+
+    /**
+     * Receives the pay figures of employees without their names being decoded, with the department as a code of
+     * {@link EmployeeCodes}.
+     */
+    public interface PayFiguresVisitor {
+        void visit(int id, int departmentCode, long wageCents, long hoursHundredths, long bonusCents);
+    }
+
+    /**
+     * The records of {@value #CHUNK_SIZE} neighbouring rows; null where a stored employee is unchanged or a row was
+     * handed out but not filled yet, and DELETED where the employee was deleted. The records of a chunk change only
+     * while its generation is the repository's, when no snapshot holds it.
+     */
+    private static final class Chunk {
+        private final long generation;
+        private final EmployeeRecord[] records;
+
+        private Chunk(long generation, EmployeeRecord[] records) {
+            this.generation = generation;
+            this.records = records;
+        }
+    }
+
+    private final ReentrantReadWriteLock[] locks = new ReentrantReadWriteLock[STRIPES];
+    private final ChangeListener listener;
+    // The base and the chunk table are only replaced while every stripe is write-locked; a row only changes while
+    // the stripe of its employee is write-locked, and chunks are swapped in the table with a compare-and-set,
+    // as employees of different stripes share chunks
+    private volatile Base base = new Base(new HeapEmployeeStore(List.of()), new int[0]);
+    private volatile AtomicReferenceArray<Chunk> chunks = new AtomicReferenceArray<>(0);
+    // Moved on by every snapshot, while every stripe is read-locked
+    private final AtomicLong generation = new AtomicLong();
+    // The rows handed out to added employees, after the stored ones
+    private final AtomicInteger addedRows = new AtomicInteger();
+    // The number of employees
+    private final AtomicInteger size = new AtomicInteger();
+    // The rows of the added employees by ID, one map per stripe
+    private final List<Map<Integer, Integer>> addedRowsById = new ArrayList<>(STRIPES);
+
+    /**
+     * Creates an empty repository.
+     *
+     * @param listener told about every change made through {@link #put}, {@link #putAll}, {@link #replace}
+     *                 and {@link #remove}
+     */
+    public EmployeeRepository(ChangeListener listener) {
+        this.listener = listener;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantReadWriteLock();
+            addedRowsById.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Replaces the contents of the repository with the records of a store and changes made on top of them,
+     * such as those replayed from the journal. The listener is not told about them.
+     * Called before the repository is shared; changes made at the same time may be lost.
+     *
+     * @param store   the stored records
+     * @param ids     the ID of each stored record by store position, which may differ from the stored ID
+     *                for employees that were renumbered
+     * @param changed the changed and added records by ID, with null for deleted employees
+     */
+    public void load(EmployeeStore store, int[] ids, Map<Integer, EmployeeRecord> changed) {
+        lockAll(false);
+        try {
+            base = new Base(store, ids);
+            chunks = new AtomicReferenceArray<>(chunksFor(ids.length + changed.size()));
+            addedRows.set(0);
+            size.set(ids.length);
+            addedRowsById.forEach(Map::clear);
+            changed.forEach((id, record) -> {
+                int row = rowOf(id);
+                if (row >= 0) {
+                    size.addAndGet(record == null ? -1 : 0);
+                    setRow(row, record != null ? record : DELETED);
+                } else if (record != null) {
+                    row = ids.length + addedRows.getAndIncrement();
+                    addedRowsById.get(stripe(id)).put(id, row);
+                    size.incrementAndGet();
+                    setRow(row, record);
+                }
+            });
+        } finally {
+            unlockAll(false);
+        }
+    }
+
+    /**
+     * Returns the current record of an employee.
+     *
+     * @param id the employee ID
+     * @return the record, or null if no employee has that ID
+     */
+    public EmployeeRecord get(int id) {
+        ReentrantReadWriteLock.ReadLock lock = locks[stripe(id)].readLock();
+        lock.lock();
+        try {
+            int row = rowOf(id);
+            return row >= 0 ? recordAt(row) : null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of employees.
+     *
+     * @return the number of employees
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Adds an employee, or replaces the record of the employee with the same ID.
+     *
+     * @param record the new record
+     * @return the record it replaced, or null if the employee was added
+     */
+    public EmployeeRecord put(EmployeeRecord record) {
+        ReentrantReadWriteLock.WriteLock lock = locks[stripe(record.getId())].writeLock();
+        // No row is handed out for an employee that has one; rows are handed out before locking, as that may
+        // grow the table, so the employee is looked up again once one is
+        int newRow = -1;
+        while (true) {
+            lock.lock();
+            try {
+                if (newRow >= 0 || rowOf(record.getId()) >= 0) {
+                    return store(record, newRow);
+                }
+            } finally {
+                lock.unlock();
+            }
+            newRow = reserveRows(1);
+        }
+    }
+
+    /**
+     * Adds or replaces the records of many employees, locking each stripe once for all of its records
+     * rather than once per record. Each record is still a change of its own to readers and the listener.
+     * Added employees get their rows in the order of the list.
+     * <p>
+     * The batch is taken whole or not at all: if the listener rejects a record, the records already taken are put
+     * back as they were, through the listener, before the exception is passed on. An added employee is put back by
+     * deleting them. A record another thread changed in the meantime is left as that thread made it.
+     *
+     * @param records the new records
+     */
+    public void putAll(List<EmployeeRecord> records) {
+        int firstRow = reserveRows(records.size());
+        List<List<Integer>> byStripe = new ArrayList<>(STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            byStripe.add(new ArrayList<>());
+        }
+        for (int i = 0; i < records.size(); i++) {
+            byStripe.get(stripe(records.get(i).getId())).add(i);
+        }
+        // The previous and new record of each change taken so far, to undo them if a later one is rejected
+        List<EmployeeRecord[]> taken = new ArrayList<>(records.size());
+        try {
+            for (int i = 0; i < STRIPES; i++) {
+                if (byStripe.get(i).isEmpty()) {
+                    continue;
+                }
+                ReentrantReadWriteLock.WriteLock lock = locks[i].writeLock();
+                lock.lock();
+                try {
+                    for (int position : byStripe.get(i)) {
+                        EmployeeRecord record = records.get(position);
+                        taken.add(new EmployeeRecord[]{store(record, firstRow + position), record});
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } catch (RuntimeException | Error e) {
+            undo(taken, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Puts back the records changed by the taken part of a batch, last first, each under the lock of its stripe.
+     * Undoing a change the listener took only takes its contribution off again, so it is not expected to be rejected;
+     * if it is anyway, the exception is added to the one that ended the batch and the other changes are still undone.
+     *
+     * @param taken    the previous and new record of each change taken, in the order they were taken
+     * @param rejected the exception that ended the batch
+     */
+    private void undo(List<EmployeeRecord[]> taken, Throwable rejected) {
+        for (int i = taken.size() - 1; i >= 0; i--) {
+            EmployeeRecord previous = taken.get(i)[0];
+            EmployeeRecord current = taken.get(i)[1];
+            ReentrantReadWriteLock.WriteLock lock = locks[stripe(current.getId())].writeLock();
+            lock.lock();
+            try {
+                int row = rowOf(current.getId());
+                if (row < 0 || recordAt(row) != current) {
+                    continue;
+                }
+                change(row, current, previous);
+                if (previous == null) {
+                    size.decrementAndGet();
+                }
+            } catch (RuntimeException | Error e) {
+                rejected.addSuppressed(e);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Replaces the record of an employee, unless the employee was deleted in the meantime.
+     *
+     * @param record the new record
+     * @return the record it replaced, or null if no employee has that ID, in which case nothing changed
+     */
+    public EmployeeRecord replace(EmployeeRecord record) {
+        ReentrantReadWriteLock.WriteLock lock = locks[stripe(record.getId())].writeLock();
+        lock.lock();
+        try {
+            int row = rowOf(record.getId());
+            EmployeeRecord previous = row >= 0 ? recordAt(row) : null;
+            if (previous != null) {
+                change(row, previous, record);
+            }
+            return previous;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deletes an employee.
+     *
+     * @param id the employee ID
+     * @return the deleted record, or null if no employee had that ID
+     */
+    public EmployeeRecord remove(int id) {
+        ReentrantReadWriteLock.WriteLock lock = locks[stripe(id)].writeLock();
+        lock.lock();
+        try {
+            int row = rowOf(id);
+            EmployeeRecord previous = row >= 0 ? recordAt(row) : null;
+            if (previous == null) {
+                return null;
+            }
+            change(row, previous, null);
+            size.decrementAndGet();
+            return previous;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns an immutable point-in-time view of all employees: the stored employees in store order, then the added
+     * employees in the order they were added. Changes made afterwards do not show in it. Taking it costs the
+     * references to the chunks of rows, not the records; it may be read from any thread and kept as long as needed.
+     *
+     * @return the records of all employees
+     */
+    public Snapshot snapshot() {
+        lockAll(true);
+        try {
+            AtomicReferenceArray<Chunk> table = chunks;
+            Base base = this.base;
+            // Rows handed out but not covered by the table yet have not been filled
+            int rows = (int) Math.min(base.ids.length + (long) addedRows.get(), (long) table.length() << CHUNK_SHIFT);
+            Chunk[] shared = new Chunk[chunksFor(rows)];
+            for (int i = 0; i < shared.length; i++) {
+                shared[i] = table.get(i);
+            }
+            // From now on the shared chunks are copied before they are changed
+            generation.incrementAndGet();
+            return new Snapshot(base, shared, rows, size.get());
+        } finally {
+            unlockAll(true);
+        }
+    }
+
+    /**
+     * Runs an action while no change is being made: every stripe is write-locked, so changes in progress finish
+     * first and new ones wait until the action returns.
+     *
+     * @param action the action to run
+     */
+    public void whileLocked(Runnable action) {
+        lockAll(false);
+        try {
+            action.run();
+        } finally {
+            unlockAll(false);
+        }
+    }
+
+    /**
+     * Hands out rows for employees that may be added, and makes room for them in the chunk table.
+     * Rows that end up unused because the employee already existed stay empty.
+     *
+     * @return the first of the rows
+     */
+    private int reserveRows(int count) {
+        int first = base.ids.length + addedRows.getAndAdd(count);
+        int needed = chunksFor(first + count);
+        if (needed > chunks.length()) {
+            lockAll(false);
+            try {
+                AtomicReferenceArray<Chunk> table = chunks;
+                if (needed > table.length()) {
+                    // Grows by half at least, so a long import resizes the table a few times only
+                    AtomicReferenceArray<Chunk> grown = new AtomicReferenceArray<>(Math.max(needed, table.length() * 3 / 2));
+                    for (int i = 0; i < table.length(); i++) {
+                        grown.set(i, table.get(i));
+                    }
+                    chunks = grown;
+                }
+            } finally {
+                unlockAll(false);
+            }
+        }
+        return first;
+    }
+
+    /**
+     * Stores a record in the row of its employee, or in the given new row if the employee is added, and tells the
+     * listener; the caller holds the write lock of its stripe.
+     */
+    private EmployeeRecord store(EmployeeRecord record, int newRow) {
+        int row = rowOf(record.getId());
+        EmployeeRecord previous = row >= 0 ? recordAt(row) : null;
+        change(row >= 0 ? row : newRow, previous, record);
+        // Only once the change is taken, so a rejected employee leaves their new row empty
+        if (row < 0) {
+            addedRowsById.get(stripe(record.getId())).put(record.getId(), newRow);
+        }
+        if (previous == null) {
+            size.incrementAndGet();
+        }
+        return previous;
+    }
+
+    /**
+     * Puts a record in a row, or marks its employee deleted if the record is null, and tells the listener. If the
+     * listener throws, the row is put back as it was before the exception is passed on, so the repository never holds
+     * a change the listener did not take; the caller holds the write lock of the row's stripe.
+     */
+    private void change(int row, EmployeeRecord previous, EmployeeRecord current) {
+        Chunk chunk = chunks.get(row >> CHUNK_SHIFT);
+        EmployeeRecord stored = chunk != null ? chunk.records[row & (CHUNK_SIZE - 1)] : null;
+        setRow(row, current != null ? current : DELETED);
+        try {
+            listener.changed(previous, current);
+        } catch (RuntimeException | Error e) {
+            setRow(row, stored);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the row of an employee, or -1 if it never had one; the caller holds a lock of its stripe.
+     */
+    private int rowOf(int id) {
+        int row = base.rowOf(id);
+        if (row >= 0) {
+            return row;
+        }
+        Integer added = addedRowsById.get(stripe(id)).get(id);
+        return added != null ? added : -1;
+    }
+
+    /**
+     * Returns the record in a row, or null if its employee was deleted; the caller holds the lock of its stripe.
+     */
+    private EmployeeRecord recordAt(int row) {
+        Chunk chunk = chunks.get(row >> CHUNK_SHIFT);
+        EmployeeRecord record = chunk != null ? chunk.records[row & (CHUNK_SIZE - 1)] : null;
+        if (record == null) {
+            return row < base.ids.length ? base.recordAt(row) : null;
+        }
+        return record != DELETED ? record : null;
+    }
+
+    /**
+     * Sets the record in a row, first replacing its chunk with a copy if a snapshot shares it;
+     * the caller holds the write lock of the row's stripe.
+     */
+    private void setRow(int row, EmployeeRecord record) {
+        AtomicReferenceArray<Chunk> table = chunks;
+        int index = row >> CHUNK_SHIFT;
+        long current = generation.get();
+        while (true) {
+            Chunk chunk = table.get(index);
+            if (chunk == null || chunk.generation != current) {
+                // Another stripe may be replacing the same chunk; whoever loses uses the winner's copy
+                Chunk copy = new Chunk(current, chunk == null ? new EmployeeRecord[CHUNK_SIZE] : chunk.records.clone());
+                if (!table.compareAndSet(index, chunk, copy)) {
+                    continue;
+                }
+                chunk = copy;
+            }
+            chunk.records[row & (CHUNK_SIZE - 1)] = record;
+            return;
+        }
+    }
+
+    /**
+     * Locks every stripe, always in the same order so two threads locking them all cannot deadlock.
+     */
+    private void lockAll(boolean read) {
+        for (ReentrantReadWriteLock lock : locks) {
+            if (read) {
+                lock.readLock().lock();
+            } else {
+                lock.writeLock().lock();
+            }
+        }
+    }
+
+    private void unlockAll(boolean read) {
+        for (int i = STRIPES - 1; i >= 0; i--) {
+            if (read) {
+                locks[i].readLock().unlock();
+            } else {
+                locks[i].writeLock().unlock();
+            }
+        }
+    }
+
+    private static int stripe(int id) {
+        return id & (STRIPES - 1);
+    }
+
+    private static int chunksFor(int rows) {
+        return (rows + CHUNK_SIZE - 1) >> CHUNK_SHIFT;
+    }
+
+    /**
+     * The stored records, with their IDs after renumbering and an index from ID to store position.
+     */
+    private static final class Base {
+        private final EmployeeStore store;
+        private final int[] ids;
+        // Built on the first lookup by ID
+        private volatile RowIndex rowIndex;
+
+        Base(EmployeeStore store, int[] ids) {
+            this.store = store;
+            this.ids = ids;
+        }
+
+        EmployeeRecord recordAt(int row) {
+            EmployeeRecord record = store.recordAt(row);
+            return record.getId() == ids[row] ? record : record.withId(ids[row]);
+        }
+
+        /**
+         * Returns the store position of the employee with the given ID, or -1 if it is not stored.
+         */
+        int rowOf(int id) {
+            RowIndex index = rowIndex;
+            if (index == null) {
+                // Threads that race here build the same index, so either one will do
+                index = new RowIndex(ids);
+                rowIndex = index;
+            }
+            return index.rowOf(id);
+        }
+    }
+
+    /**
+     * Finds the store positions of the stored employees by ID. IDs are handed out in sequence, so they usually fill
+     * most of the range from the lowest to the highest, and the position is read from a table indexed by ID.
+     * Sparse IDs are found by binary search over the sorted IDs instead.
+     */
+    private static final class RowIndex {
+        private final int lowestId;
+        // Store position by ID minus the lowest ID, -1 where no stored employee has the ID; null if the IDs are sparse
+        private final int[] rowsById;
+        // The IDs in ascending order above their store positions, if the IDs are sparse
+        private final long[] sortedIds;
+
+        RowIndex(int[] ids) {
+            int lowest = Integer.MAX_VALUE;
+            int highest = Integer.MIN_VALUE;
+            for (int id : ids) {
+                lowest = Math.min(lowest, id);
+                highest = Math.max(highest, id);
+            }
+            lowestId = lowest;
+            if (ids.length > 0 && (long) highest - lowest < 2L * ids.length) {
+                rowsById = new int[highest - lowest + 1];
+                Arrays.fill(rowsById, -1);
+                for (int row = 0; row < ids.length; row++) {
+                    rowsById[ids[row] - lowest] = row;
+                }
+                sortedIds = null;
+            } else {
+                rowsById = null;
+                sortedIds = new long[ids.length];
+                for (int row = 0; row < ids.length; row++) {
+                    sortedIds[row] = (long) ids[row] << 32 | row;
+                }
+                Arrays.sort(sortedIds);
+            }
+        }
+
+        int rowOf(int id) {
+            if (rowsById != null) {
+                long offset = (long) id - lowestId;
+                return offset >= 0 && offset < rowsById.length ? rowsById[(int) offset] : -1;
+            }
+            int low = 0;
+            int high = sortedIds.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                int middleId = (int) (sortedIds[middle] >> 32);
+                if (middleId < id) {
+                    low = middle + 1;
+                } else if (middleId > id) {
+                    high = middle - 1;
+                } else {
+                    return (int) sortedIds[middle];
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * An immutable point-in-time view of the records of all employees. It holds the chunks of rows as they were when
+     * it was taken, which the repository no longer changes, and reads unchanged stored records from the store.
+     */
+    public static final class Snapshot extends AbstractList<EmployeeRecord> implements RandomAccess {
+        private final Base base;
+        private final Chunk[] chunks;
+        private final int rows;
+        private final int size;
+        // The rows of the employees in list order, built on the first positional lookup if some rows are empty
+        private volatile int[] liveRows;
+
+        private Snapshot(Base base, Chunk[] chunks, int rows, int size) {
+            this.base = base;
+            this.chunks = chunks;
+            this.rows = rows;
+            this.size = size;
+        }
+
+        @Override
+        public EmployeeRecord get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+            }
+            if (size == rows) {
+                return recordAt(index);
+            }
+            int[] live = liveRows;
+            if (live == null) {
+                // Threads that race here find the same rows, so either result will do
+                live = new int[size];
+                for (int row = nextRow(0), i = 0; i < size; row = nextRow(row + 1)) {
+                    live[i++] = row;
+                }
+                liveRows = live;
+            }
+            return recordAt(live[index]);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Goes over the rows in order without building the positional lookup, as copying the snapshot does.
+         */
+        @Override
+        public Iterator<EmployeeRecord> iterator() {
+            return new Iterator<>() {
+                private int row = -1;
+                // Found one ahead, so each row is looked at once
+                private EmployeeRecord next = advance();
+
+                @Override
+                public boolean hasNext() {
+                    return next != null;
+                }
+
+                @Override
+                public EmployeeRecord next() {
+                    EmployeeRecord record = next;
+                    if (record == null) {
+                        throw new NoSuchElementException();
+                    }
+                    next = advance();
+                    return record;
+                }
+
+                private EmployeeRecord advance() {
+                    while (++row < rows) {
+                        EmployeeRecord record = changedAt(row);
+                        if (record == null) {
+                            if (row < base.ids.length) {
+                                return base.recordAt(row);
+                            }
+                        } else if (record != DELETED) {
+                            return record;
+                        }
+                    }
+                    return null;
+                }
+            };
+        }
+
+        /**
+         * Passes the ID, department and pay figures of every employee to the visitor, in snapshot order.
+         * Unchanged stored employees are read straight from the store columns, without decoding their names.
+         *
+         * @param visitor receives the figures of each employee
+         */
+        public void forEachPayFigures(PayFiguresVisitor visitor) {
+            EmployeeStore store = base.store;
+            for (int row = nextRow(0); row < rows; row = nextRow(row + 1)) {
+                EmployeeRecord record = changedAt(row);
+                if (record != null) {
+                    visitor.visit(record.getId(), record.getDepartmentCode(),
+                            record.getWageCents(), record.getHoursHundredths(), record.getBonusCents());
+                } else {
+                    visitor.visit(base.ids[row], store.departmentCodeAt(row),
+                            store.wageCentsAt(row), store.hoursHundredthsAt(row), store.bonusCentsAt(row));
+                }
+            }
+        }
+
+        /**
+         * Returns the record held in a row of the chunks, null if the row holds none.
+         */
+        private EmployeeRecord changedAt(int row) {
+            Chunk chunk = chunks[row >> CHUNK_SHIFT];
+            return chunk != null ? chunk.records[row & (CHUNK_SIZE - 1)] : null;
+        }
+
+        private EmployeeRecord recordAt(int row) {
+            EmployeeRecord record = changedAt(row);
+            return record != null ? record : base.recordAt(row);
+        }
+
+        /**
+         * Returns the first row from the given one that holds an employee, or the number of rows if none does.
+         */
+        private int nextRow(int row) {
+            for (; row < rows; row++) {
+                EmployeeRecord record = changedAt(row);
+                if (record == null ? row < base.ids.length : record != DELETED) {
+                    return row;
+                }
+            }
+            return rows;
+        }
+    }
+}
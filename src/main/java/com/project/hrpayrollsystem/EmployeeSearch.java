@@ -0,0 +1,70 @@
+package com.project.hrpayrollsystem;
+
+import javafx.animation.PauseTransition;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.control.TextField;
+import javafx.util.Duration;
+
+import java.util.function.Consumer;
+
+/**
+ * Searches the employees as the user types into a search field and hands the matches to a table or combo box.
+ * <p>
+ * Every change of the text restarts a short pause and the search only runs when the pause ends, so a burst of
+ * keystrokes costs one query. Queries go to the employee index through {@link EmployeeManager#searchEmployees},
+ * so they never scan the roster. The index is built in the background when the field is first focused,
+ * and a query typed before it is ready runs as soon as it is. An empty field shows the whole employee list again.
+ */
+public class EmployeeSearch {
+
+    // How long typing must pause before the search runs
+    private static final Duration DEBOUNCE = Duration.millis(150);
+    // Most matches shown for one query
+    static final int RESULT_LIMIT = 1000;
+
+    private final TextField field;
+    private final Consumer<ObservableList<Employee>> results;
+    private final PauseTransition pause = new PauseTransition(DEBOUNCE);
+
+    /**
+     * Connects a search field to the control showing its matches.
+     *
+     * @param field   the field the user types into
+     * @param results receives the matching employees, or the whole employee list when the field is empty
+     */
+    public EmployeeSearch(TextField field, Consumer<ObservableList<Employee>> results) {
+        this.field = field;
+        this.results = results;
+        pause.setOnFinished(event -> refresh());
+        field.textProperty().addListener((observable, oldText, newText) -> pause.playFromStart());
+        field.focusedProperty().addListener((observable, wasFocused, focused) -> {
+            if (focused) {
+                EmployeeManager.prepareIndex(() -> { });
+            }
+        });
+    }
+
+    /**
+     * Runs the search for the current text right away, for example after employees were changed or deleted.
+     */
+    public void refresh() {
+        pause.stop();
+        String query = field.getText() == null ? "" : field.getText().trim();
+        if (query.isEmpty()) {
+            results.accept(EmployeeManager.getEmployeeList());
+        } else if (!EmployeeManager.isIndexReady()) {
+            EmployeeManager.prepareIndex(this::refresh);
+        } else {
+            results.accept(FXCollections.observableArrayList(EmployeeManager.searchEmployees(query, RESULT_LIMIT)));
+        }
+    }
+
+    /**
+     * Empties the search field and shows the whole employee list.
+     */
+    public void clear() {
+        field.clear();
+        refresh();
+    }
+}
@@ -0,0 +1,31 @@
+package com.project.hrpayrollsystem;
+
+/**
+ * Read-only access by position to the employee records loaded from the data file.
+ * Besides whole records, the ID, department code and pay figures of a record can be read on their own,
+ * so stores that decode records on demand do not have to decode the names to read them.
+ */
+public interface EmployeeStore {
+
+    /**
+     * Returns the number of records in the store.
+     *
+     * @return the record count
+     */
+    int size();
+
+    /**
+     * Returns the record at the given position.
+     *
+     * @param index the record position
+     * @return the employee record
+     */
+    EmployeeRecord recordAt(int index);
+
+    int idAt(int index);
+    // The department as a code of EmployeeCodes, so the name is neither decoded nor compared
+    int departmentCodeAt(int index);
+    long wageCentsAt(int index);
+    long hoursHundredthsAt(int index);
+    long bonusCentsAt(int index);
+}
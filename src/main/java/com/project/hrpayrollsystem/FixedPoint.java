@@ -0,0 +1,49 @@
+package com.project.hrpayrollsystem;
+
+/**
+ * This class provides conversions between decimal values and the fixed-point values stored in an {@link EmployeeRecord}.
+ * Amounts of money are stored as a whole number of cents and hours as a whole number of hundredths of an hour,
+ * so both use a scale of two decimal places.
+ */
+public class FixedPoint {
+
+    public static final long SCALE = 100;
+
+    private FixedPoint() {
+    }
+
+    /**
+     * Converts a decimal value to hundredths, rounding to the nearest hundredth.
+     *
+     * @param value the decimal value, e.g. a wage of 12.5
+     * @return the value in hundredths, e.g. 1250
+     */
+    public static long toHundredths(double value) {
+        return Math.round(value * SCALE);
+    }
+
+    /**
+     * Parses user input into hundredths. A leading dollar sign is ignored.
+     *
+     * @param text the text to parse
+     * @return the value in hundredths
+     * @throws NumberFormatException if the text is not a number
+     */
+    public static long parseHundredths(String text) {
+        String trimmed = text.trim();
+        if (trimmed.startsWith("$")) {
+            trimmed = trimmed.substring(1);
+        }
+        return toHundredths(Double.parseDouble(trimmed));
+    }
+
+    /**
+     * Converts hundredths back to a decimal value.
+     *
+     * @param hundredths the value in hundredths
+     * @return the decimal value
+     */
+    public static double toDouble(long hundredths) {
+        return hundredths / (double) SCALE;
+    }
+}
@@ -0,0 +1,29 @@
+package com.project.hrpayrollsystem;
+
+import java.util.List;
+
+/**
+ * An employee store over records that were read into the heap, as with the compact layout of the data file.
+ * Only the records are held; {@link Employee} views of them are created by {@link LazyEmployeeList} as they are needed.
+ */
+public class HeapEmployeeStore implements EmployeeStore {
+
+    private final List<EmployeeRecord> records;
+
+    /**
+     * Constructs a store over the given records. The list is not copied and must not be changed afterwards.
+     *
+     * @param records the records, in file order
+     */
+    public HeapEmployeeStore(List<EmployeeRecord> records) {
+        this.records = records;
+    }
+
+    public int size() { return records.size(); }
+    public EmployeeRecord recordAt(int index) { return records.get(index); }
+    public int idAt(int index) { return records.get(index).getId(); }
+    public int departmentCodeAt(int index) { return records.get(index).getDepartmentCode(); }
+    public long wageCentsAt(int index) { return records.get(index).getWageCents(); }
+    public long hoursHundredthsAt(int index) { return records.get(index).getHoursHundredths(); }
+    public long bonusCentsAt(int index) { return records.get(index).getBonusCents(); }
+}
@@ -0,0 +1,399 @@
+package com.project.hrpayrollsystem;
+
+import javafx.collections.ModifiableObservableListBase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An observable employee list over an {@link EmployeeStore} that creates {@link Employee} views page by page.
+ * <p>
+ * The list starts out as the records of the store, in file order. Views are only created when a table row,
+ * combo box cell or other caller asks for them, a page of {@value #PAGE_SIZE} neighbouring rows at a time,
+ * and at most {@value #MAX_PAGES} pages are kept, the least recently used being dropped first.
+ * Scrolling a table therefore fetches the window of rows being shown, and the views on the heap are bounded
+ * by the rows in use rather than by the size of the roster.
+ * <p>
+ * Only records are kept for what changed since the store was loaded: the changed stored records and the records
+ * added during the session, which come after the stored ones. A view that was dropped from its page is simply
+ * created again from them when it is next asked for.
+ * <p>
+ * Like any list shown by JavaFX controls, the list is only read and changed on the JavaFX thread. The records
+ * themselves are kept by the {@link EmployeeRepository}, which the list follows.
+ */
+public class LazyEmployeeList extends ModifiableObservableListBase<Employee> {
+
+    static final int PAGE_SIZE = 64;
+    static final int MAX_PAGES = 32;
+
+    // Every employee has a slot: stored employees their store position, added employees the store size plus
+    // their position among the added ones. Pages and view hints are keyed by slot.
+    private EmployeeStore store = new HeapEmployeeStore(List.of());
+    private int storeSize;
+    // Store positions of the stored employees still in the list, in list order
+    private int[] rows = new int[0];
+    private int storedCount;
+    private final List<EmployeeRecord> appended = new ArrayList<>();
+    // The slots of the added employees by ID, so a large import is looked up as fast as the stored employees
+    private final Map<Integer, Integer> appendedSlots = new HashMap<>();
+    // Changed records by store position
+    private final Map<Integer, EmployeeRecord> changed = new HashMap<>();
+    // The IDs of the stored employees in ascending order and their store positions, built on the first lookup by ID
+    private int[] sortedIds;
+    private int[] sortedIdRows;
+    private final Map<Integer, Employee[]> pages = new LinkedHashMap<>(MAX_PAGES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Employee[]> eldest) {
+            return size() > MAX_PAGES;
+        }
+    };
+
+    /**
+     * Applies several changes to the list as a single change, so listeners and the controls showing the list
+     * update once for all of them.
+     *
+     * @param changes the changes to make
+     */
+    public void applyChanges(Runnable changes) {
+        beginChange();
+        try {
+            changes.run();
+        } finally {
+            endChange();
+        }
+    }
+
+    /**
+     * Replaces the contents of the list with the records of the given store.
+     *
+     * @param store the store to view
+     */
+    public void load(EmployeeStore store) {
+        beginChange();
+        if (!isEmpty()) {
+            nextRemove(0, new ArrayList<>(this));
+        }
+        this.store = store;
+        this.storeSize = store.size();
+        this.storedCount = storeSize;
+        this.rows = new int[storedCount];
+        for (int i = 0; i < storedCount; i++) {
+            rows[i] = i;
+        }
+        appended.clear();
+        appendedSlots.clear();
+        changed.clear();
+        pages.clear();
+        sortedIds = null;
+        sortedIdRows = null;
+        if (!isEmpty()) {
+            nextAdd(0, size());
+        }
+        endChange();
+    }
+
+    /**
+     * Records the current record of a changed employee, so the change is kept after its view is dropped.
+     *
+     * @param employee the changed employee
+     */
+    public void markChanged(Employee employee) {
+        int slot = slotOf(employee);
+        if (slot < 0) {
+            return;
+        }
+        putRecord(slot, employee.getRecord());
+        employee.setSlot(slot);
+        cacheView(slot, employee);
+    }
+
+    /**
+     * Returns the employee ID at the given position without creating a view of the employee.
+     *
+     * @param index the position in the list
+     * @return the employee ID
+     */
+    public int idAt(int index) {
+        return idAtSlot(slotAt(index));
+    }
+
+    /**
+     * Returns the position in the list of the employee stored at the given store position.
+     *
+     * @param row the store position
+     * @return the position in the list, or -1 if that employee was removed
+     */
+    public int indexOfRow(int row) {
+        int index = Arrays.binarySearch(rows, 0, storedCount, row);
+        return index >= 0 ? index : -1;
+    }
+
+    /**
+     * Returns the position in the list of the employee with the given ID.
+     *
+     * @param id the employee ID
+     * @return the position in the list, or -1 if no employee in the list has that ID
+     */
+    public int indexOfId(int id) {
+        int slot = slotOfId(id);
+        if (slot < 0) {
+            return -1;
+        }
+        return slot < storeSize ? indexOfRow(slot) : storedCount + slot - storeSize;
+    }
+
+    /**
+     * Returns the view of the employee with the given ID, looked up by binary search over the stored IDs or in the
+     * slots of the added employees.
+     * The employee's page is not fetched, so looking up scattered employees, such as search results,
+     * does not push the pages of the rows in view out of the cache.
+     *
+     * @param id the employee ID
+     * @return the employee, or null if no employee in the list has that ID
+     */
+    public Employee getById(int id) {
+        int slot = slotOfId(id);
+        if (slot < 0) {
+            return null;
+        }
+        Employee[] page = pages.get(slot / PAGE_SIZE);
+        if (page != null && page[slot % PAGE_SIZE] != null) {
+            return page[slot % PAGE_SIZE];
+        }
+        return decode(slot);
+    }
+
+    @Override
+    public Employee get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size());
+        }
+        return view(slotAt(index));
+    }
+
+    @Override
+    public int size() {
+        return storedCount + appended.size();
+    }
+
+    /**
+     * Finds an employee from the slot it remembers, by binary search over the store positions for a stored employee.
+     */
+    @Override
+    public int indexOf(Object o) {
+        if (!(o instanceof Employee)) {
+            return -1;
+        }
+        int slot = slotOf((Employee) o);
+        if (slot < 0) {
+            return -1;
+        }
+        return slot < storeSize ? indexOfRow(slot) : storedCount + slot - storeSize;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return indexOf(o);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    @Override
+    protected void doAdd(int index, Employee element) {
+        if (index < storedCount) {
+            throw new UnsupportedOperationException("Employees can only be added after the stored employees");
+        }
+        int slot = storeSize + index - storedCount;
+        appended.add(slot - storeSize, element.getRecord());
+        indexAppendedFrom(slot - storeSize);
+        if (slot - storeSize < appended.size() - 1) {
+            // The added employees after this one move up a slot
+            dropPagesFrom(slot);
+        }
+        element.setSlot(slot);
+        cacheView(slot, element);
+    }
+
+    @Override
+    protected Employee doSet(int index, Employee element) {
+        int slot = slotAt(index);
+        Employee previous = view(slot);
+        if (slot < storeSize && previous.getRecord().getId() != element.getRecord().getId()) {
+            // Renumbered, so the stored IDs are sorted again on the next lookup by ID
+            sortedIds = null;
+            sortedIdRows = null;
+        }
+        previous.setSlot(-1);
+        putRecord(slot, element.getRecord());
+        element.setSlot(slot);
+        cacheView(slot, element);
+        return previous;
+    }
+
+    @Override
+    protected Employee doRemove(int index) {
+        int slot = slotAt(index);
+        Employee removed = view(slot);
+        if (slot < storeSize) {
+            System.arraycopy(rows, index + 1, rows, index, storedCount - index - 1);
+            storedCount--;
+            changed.remove(slot);
+            cacheView(slot, null);
+        } else {
+            appendedSlots.remove(appended.remove(slot - storeSize).getId());
+            indexAppendedFrom(slot - storeSize);
+            // The added employees after this one move down a slot
+            dropPagesFrom(slot);
+        }
+        removed.setSlot(-1);
+        return removed;
+    }
+
+    private int slotAt(int index) {
+        return index < storedCount ? rows[index] : storeSize + index - storedCount;
+    }
+
+    private int idAtSlot(int slot) {
+        if (slot >= storeSize) {
+            return appended.get(slot - storeSize).getId();
+        }
+        EmployeeRecord record = changed.get(slot);
+        return record != null ? record.getId() : store.idAt(slot);
+    }
+
+    private EmployeeRecord recordAtSlot(int slot) {
+        if (slot >= storeSize) {
+            return appended.get(slot - storeSize);
+        }
+        EmployeeRecord record = changed.get(slot);
+        return record != null ? record : store.recordAt(slot);
+    }
+
+    private void putRecord(int slot, EmployeeRecord record) {
+        if (slot >= storeSize) {
+            EmployeeRecord previous = appended.set(slot - storeSize, record);
+            if (previous.getId() != record.getId()) {
+                appendedSlots.remove(previous.getId());
+                appendedSlots.put(record.getId(), slot);
+            }
+        } else {
+            changed.put(slot, record);
+        }
+    }
+
+    /**
+     * Returns the slot of an employee in the list, or -1 if it is not in the list.
+     * The slot the employee remembers is used when it still holds an employee with the same ID; added employees
+     * move when an earlier added employee is removed, so otherwise they are looked up by ID.
+     */
+    private int slotOf(Employee employee) {
+        int id = employee.getRecord().getId();
+        int slot = employee.getSlot();
+        if (slot >= 0 && slot < storeSize + appended.size() && idAtSlot(slot) == id) {
+            return slot;
+        }
+        Integer appendedSlot = appendedSlots.get(id);
+        return appendedSlot != null ? appendedSlot : -1;
+    }
+
+    /**
+     * Returns the slot of the employee with the given ID, or -1 if it is not in the list.
+     */
+    private int slotOfId(int id) {
+        if (sortedIds == null) {
+            sortIds();
+        }
+        int found = Arrays.binarySearch(sortedIds, id);
+        if (found >= 0) {
+            int row = sortedIdRows[found];
+            return indexOfRow(row) >= 0 ? row : -1;
+        }
+        Integer appendedSlot = appendedSlots.get(id);
+        return appendedSlot != null ? appendedSlot : -1;
+    }
+
+    /**
+     * Records the slots of the added employees from the given position on, after an employee was added or removed
+     * there. Employees are usually added at the end, which records the one slot.
+     */
+    private void indexAppendedFrom(int position) {
+        for (int i = position; i < appended.size(); i++) {
+            appendedSlots.put(appended.get(i).getId(), storeSize + i);
+        }
+    }
+
+    /**
+     * Sorts the IDs of the stored employees together with their store positions.
+     */
+    private void sortIds() {
+        long[] pairs = new long[storeSize];
+        for (int row = 0; row < storeSize; row++) {
+            pairs[row] = (long) idAtSlot(row) << 32 | row;
+        }
+        Arrays.sort(pairs);
+        sortedIds = new int[storeSize];
+        sortedIdRows = new int[storeSize];
+        for (int i = 0; i < storeSize; i++) {
+            sortedIds[i] = (int) (pairs[i] >>> 32);
+            sortedIdRows[i] = (int) pairs[i];
+        }
+    }
+
+    /**
+     * Returns the view of the employee in a slot, fetching its page when it is not cached.
+     */
+    private Employee view(int slot) {
+        Employee[] page = pages.get(slot / PAGE_SIZE);
+        if (page == null) {
+            page = fetchPage(slot / PAGE_SIZE);
+        }
+        Employee employee = page[slot % PAGE_SIZE];
+        if (employee == null) {
+            // Added after the page was fetched
+            employee = decode(slot);
+            page[slot % PAGE_SIZE] = employee;
+        }
+        return employee;
+    }
+
+    /**
+     * Creates the views of all employees in a page of slots and caches the page.
+     */
+    private Employee[] fetchPage(int pageNumber) {
+        Employee[] page = new Employee[PAGE_SIZE];
+        int first = pageNumber * PAGE_SIZE;
+        int end = Math.min(first + PAGE_SIZE, storeSize + appended.size());
+        for (int slot = first; slot < end; slot++) {
+            page[slot - first] = decode(slot);
+        }
+        pages.put(pageNumber, page);
+        return page;
+    }
+
+    private Employee decode(int slot) {
+        Employee employee = new Employee(recordAtSlot(slot));
+        employee.setSlot(slot);
+        return employee;
+    }
+
+    /**
+     * Puts a view into its page if the page is cached, so callers keep getting the same view of an employee.
+     */
+    private void cacheView(int slot, Employee employee) {
+        Employee[] page = pages.get(slot / PAGE_SIZE);
+        if (page != null) {
+            page[slot % PAGE_SIZE] = employee;
+        }
+    }
+
+    private void dropPagesFrom(int slot) {
+        pages.keySet().removeIf(pageNumber -> (pageNumber + 1) * PAGE_SIZE > slot);
+    }
+}
@@ -1,13 +1,7 @@
 package com.project.hrpayrollsystem;
 
 import javafx.application.Application;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.stage.Stage;
-import javafx.scene.image.Image;
-
-import java.util.Objects;
 
 /**
  * The main class for the HR Manager and Payroll System.
@@ -30,30 +24,22 @@ public class MainMenu extends Application {
      */
     @Override
     public void start(Stage primaryStage) throws Exception {
-        // Load the main menu FXML file
-        Parent root = FXMLLoader.load(Objects.requireNonNull(getClass().getResource("/com/project/hrpayrollsystem/fxml/mainMenu.fxml")));
-
-        // Create a scene with the main menu as the root
-        Scene scene = new Scene(root);
+        // Load employee data on application start, the EmployeeManager loads it once when it is first used
+        EmployeeManager.getEmployeeList();
 
-        // Set the application icon
-        Image icon = new Image(Objects.requireNonNull(getClass().getResourceAsStream("/com/project/hrpayrollsystem/images/home.png")));
-        primaryStage.getIcons().add(icon);
+        // Load every screen once, navigating between them reuses the loaded scenes
+        Navigator.preload();
 
-        // Set the title of the application
-        primaryStage.setTitle("HR Manager and Payroll System - Main Menu");
+        // Show the main menu, which sets the title and icon of the application
+        Navigator.show(primaryStage, Navigator.Screen.MAIN_MENU);
 
-        // Set the scene and make the stage not resizable
-        primaryStage.setScene(scene);
+        // Make the stage not resizable
         primaryStage.setResizable(false);
 
         // Show the primary stage
         primaryStage.show();
 
-        // Set up a shutdown hook to save employee data on application exit
-        Runtime.getRuntime().addShutdownHook(new Thread(() -> EmployeeManager.serializeEmployeeData()));
-
-        // Load employee data on application start
-        EmployeeManager.deserializeEmployeeData();
+        // Set up a shutdown hook to write any remaining journal entries on application exit
+        Runtime.getRuntime().addShutdownHook(new Thread(EmployeeManager::closeJournal));
     }
 }
\ No newline at end of file
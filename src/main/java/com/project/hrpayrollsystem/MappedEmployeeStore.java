@@ -0,0 +1,231 @@
+package com.project.hrpayrollsystem;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A read-only employee store backed by a memory-mapped data file.
+ * <p>
+ * The mapped layout of the employee data file has a fixed-size header, holding the record count, heap size and
+ * reserved ID mark, one fixed-width record per employee
+ * and a string heap of length-prefixed UTF-8 strings that the records refer to by offset.
+ * Because every record has the same width, record {@code i} can be read directly at a known position,
+ * so opening the store costs the same regardless of the number of employees and nothing is decoded
+ * until a record is asked for. Numeric fields can be read without decoding the strings at all.
+ */
+public class MappedEmployeeStore implements EmployeeStore {
+
+    static final int HEADER_SIZE = 32;
+    // id, first name, last name and department offsets, then wage, hours and bonus
+    static final int RECORD_SIZE = 4 * 4 + 3 * 8;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final MappedByteBuffer buffer;
+    private final int recordCount;
+    private final int heapStart;
+    // Department names repeat on almost every record, so they are decoded and looked up once per heap offset
+    private final Map<Integer, Integer> departmentCodes = new ConcurrentHashMap<>();
+
+    private MappedEmployeeStore(MappedByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != EmployeeDataFile.MAGIC || !EmployeeDataFile.isSupported(buffer.getShort(4))
+                || buffer.getShort(6) != EmployeeDataFile.LAYOUT_MAPPED) {
+            throw new IOException("Not a mapped employee data file");
+        }
+        this.recordCount = buffer.getInt(8);
+        this.heapStart = HEADER_SIZE + recordCount * RECORD_SIZE;
+    }
+
+    /**
+     * Maps the given data file. Files in any other layout are converted to the mapped layout first.
+     *
+     * @param path the data file
+     * @return the store over the mapped file
+     * @throws IOException if the file cannot be read or mapped
+     */
+    public static MappedEmployeeStore open(Path path) throws IOException {
+        if (EmployeeDataFile.readLayout(path) != EmployeeDataFile.LAYOUT_MAPPED) {
+            write(path, EmployeeDataFile.read(path), EmployeeDataFile.readReservedIds(path));
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new MappedEmployeeStore(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Writes the employee records to the given file in the mapped layout, replacing it atomically,
+     * without a reserved ID mark.
+     *
+     * @param path    the data file
+     * @param records the employee records to write
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path path, List<EmployeeRecord> records) throws IOException {
+        write(path, records, 0);
+    }
+
+    /**
+     * Writes the employee records to the given file in the mapped layout, replacing it atomically.
+     * A store that is still mapping the old file keeps reading the old contents.
+     *
+     * @param path        the data file
+     * @param records     the employee records to write
+     * @param reservedIds the highest employee ID handed out so far, or 0 to leave it to the IDs of the records
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path path, List<EmployeeRecord> records, int reservedIds) throws IOException {
+        // Assign every distinct string an offset in the heap
+        Map<String, Integer> offsets = new HashMap<>();
+        List<byte[]> heapEntries = new ArrayList<>();
+        int heapSize = 0;
+        int[] refs = new int[records.size() * 3];
+        for (int i = 0; i < records.size(); i++) {
+            EmployeeRecord record = records.get(i);
+            String[] fields = {record.getFirstName(), record.getLastName(), record.getDepartment()};
+            for (int f = 0; f < fields.length; f++) {
+                Integer offset = offsets.get(fields[f]);
+                if (offset == null) {
+                    byte[] bytes = fields[f].getBytes(StandardCharsets.UTF_8);
+                    offset = heapSize;
+                    offsets.put(fields[f], offset);
+                    heapEntries.add(bytes);
+                    heapSize += 4 + bytes.length;
+                }
+                refs[i * 3 + f] = offset;
+            }
+        }
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            out.putInt(EmployeeDataFile.MAGIC).putShort(EmployeeDataFile.VERSION).putShort(EmployeeDataFile.LAYOUT_MAPPED)
+                    .putInt(records.size()).putInt(heapSize).putInt(reservedIds);
+            out.position(HEADER_SIZE);
+
+            for (int i = 0; i < records.size(); i++) {
+                EmployeeRecord record = records.get(i);
+                ensureRemaining(channel, out, RECORD_SIZE);
+                out.putInt(record.getId())
+                        .putInt(refs[i * 3]).putInt(refs[i * 3 + 1]).putInt(refs[i * 3 + 2])
+                        .putLong(record.getWageCents())
+                        .putLong(record.getHoursHundredths())
+                        .putLong(record.getBonusCents());
+            }
+
+            for (byte[] bytes : heapEntries) {
+                ensureRemaining(channel, out, 4);
+                out.putInt(bytes.length);
+                int written = 0;
+                while (written < bytes.length) {
+                    ensureRemaining(channel, out, 1);
+                    int chunk = Math.min(out.remaining(), bytes.length - written);
+                    out.put(bytes, written, chunk);
+                    written += chunk;
+                }
+            }
+            flush(channel, out);
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Returns the number of records in the store.
+     *
+     * @return the record count
+     */
+    public int size() {
+        return recordCount;
+    }
+
+    /**
+     * Decodes the record at the given position.
+     *
+     * @param index the record position
+     * @return the decoded employee record
+     */
+    public EmployeeRecord recordAt(int index) {
+        int position = position(index);
+        return EmployeeRecord.ofCodes(buffer.getInt(position),
+                readString(buffer.getInt(position + 4)),
+                readString(buffer.getInt(position + 8)),
+                departmentCodeAt(index),
+                buffer.getLong(position + 16),
+                buffer.getLong(position + 24),
+                EmployeeCodes.bonusCode(buffer.getLong(position + 32)));
+    }
+
+    public int idAt(int index) { return buffer.getInt(position(index)); }
+    public int departmentCodeAt(int index) {
+        return departmentCodes.computeIfAbsent(buffer.getInt(position(index) + 12),
+                offset -> EmployeeCodes.departmentCode(readString(offset)));
+    }
+
+    public long wageCentsAt(int index) { return buffer.getLong(position(index) + 16); }
+    public long hoursHundredthsAt(int index) { return buffer.getLong(position(index) + 24); }
+    public long bonusCentsAt(int index) { return buffer.getLong(position(index) + 32); }
+
+    /**
+     * Returns a list view that decodes each record when it is read.
+     *
+     * @return the records of the store
+     */
+    public List<EmployeeRecord> records() {
+        return new AbstractList<>() {
+            @Override
+            public EmployeeRecord get(int index) {
+                return recordAt(index);
+            }
+
+            @Override
+            public int size() {
+                return recordCount;
+            }
+        };
+    }
+
+    private int position(int index) {
+        if (index < 0 || index >= recordCount) {
+            throw new IndexOutOfBoundsException("Record " + index + " of " + recordCount);
+        }
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+
+    private String readString(int offset) {
+        int position = heapStart + offset;
+        byte[] bytes = new byte[buffer.getInt(position)];
+        // Absolute bulk read, so concurrent readers never share a buffer position
+        buffer.get(position + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void ensureRemaining(FileChannel channel, ByteBuffer buffer, int length) throws IOException {
+        if (buffer.remaining() < length) {
+            flush(channel, buffer);
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,152 @@
+package com.project.hrpayrollsystem;
+
+import java.math.RoundingMode;
+
+/**
+ * Exact arithmetic on amounts of money held as a whole number of cents in a {@code long}.
+ * <p>
+ * Adding and subtracting cents is exact, so totals over any number of employees come out to the cent no matter
+ * the order they are added in, which summing {@code double} dollars does not. Where a result falls between two cents,
+ * as when applying an hourly wage or a tax rate, the caller chooses how it is rounded with a {@link RoundingMode},
+ * and the rounding is done in integer arithmetic. Every operation throws an {@link ArithmeticException} instead of
+ * silently wrapping around when a result does not fit in a {@code long}. All methods work on primitives,
+ * so calculating pay allocates nothing.
+ * <p>
+ * Rates, such as tax rates, are held as a whole number of parts per million, so 12.5% is 125000.
+ */
+public final class Money {
+
+    public static final long CENTS_PER_DOLLAR = FixedPoint.SCALE;
+    public static final long RATE_SCALE = 1_000_000;
+
+    private Money() {
+    }
+
+    /**
+     * Adds two amounts.
+     *
+     * @throws ArithmeticException if the sum overflows
+     */
+    public static long add(long cents, long otherCents) {
+        return Math.addExact(cents, otherCents);
+    }
+
+    /**
+     * Subtracts an amount from another.
+     *
+     * @throws ArithmeticException if the difference overflows
+     */
+    public static long subtract(long cents, long otherCents) {
+        return Math.subtractExact(cents, otherCents);
+    }
+
+    /**
+     * Multiplies an amount by a quantity in hundredths, such as an hourly wage by the hours worked.
+     *
+     * @param cents      the amount per unit in cents
+     * @param hundredths the quantity in hundredths
+     * @param rounding   how a result between two cents is rounded
+     * @return the product in cents
+     * @throws ArithmeticException if the product overflows, or needs rounding and the rounding mode is UNNECESSARY
+     */
+    public static long multiply(long cents, long hundredths, RoundingMode rounding) {
+        return divide(Math.multiplyExact(cents, hundredths), FixedPoint.SCALE, rounding);
+    }
+
+    /**
+     * Applies a rate to an amount, such as a tax rate to a salary.
+     *
+     * @param cents    the amount in cents
+     * @param ratePpm  the rate in parts per million
+     * @param rounding how a result between two cents is rounded
+     * @return the share of the amount in cents
+     * @throws ArithmeticException if the product overflows, or needs rounding and the rounding mode is UNNECESSARY
+     */
+    public static long applyRate(long cents, long ratePpm, RoundingMode rounding) {
+        return divide(Math.multiplyExact(cents, ratePpm), RATE_SCALE, rounding);
+    }
+
+    /**
+     * Divides two whole numbers, rounding the quotient as asked. The divisor must be positive.
+     *
+     * @param dividend the number to divide
+     * @param divisor  the positive number to divide by
+     * @param rounding how a quotient between two whole numbers is rounded
+     * @return the rounded quotient
+     * @throws ArithmeticException if the quotient needs rounding and the rounding mode is UNNECESSARY
+     */
+    public static long divide(long dividend, long divisor, RoundingMode rounding) {
+        if (rounding == RoundingMode.HALF_UP && dividend >= 0 && dividend <= Long.MAX_VALUE - (divisor >> 1)) {
+            // Pay amounts are positive and usually rounded half up, which takes a single division
+            return (dividend + (divisor >> 1)) / divisor;
+        }
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+        // The quotient was truncated towards zero; it moves one away from zero when rounding up in magnitude
+        long away = dividend < 0 ? quotient - 1 : quotient + 1;
+        // Compares the remainder with what is left to the next multiple rather than doubling it, which could overflow
+        long half = Long.compare(Math.abs(remainder), divisor - Math.abs(remainder));
+        switch (rounding) {
+            case DOWN:
+                return quotient;
+            case UP:
+                return away;
+            case FLOOR:
+                return dividend < 0 ? away : quotient;
+            case CEILING:
+                return dividend < 0 ? quotient : away;
+            case HALF_UP:
+                return half >= 0 ? away : quotient;
+            case HALF_DOWN:
+                return half > 0 ? away : quotient;
+            case HALF_EVEN:
+                return half > 0 || (half == 0 && (quotient & 1) != 0) ? away : quotient;
+            default:
+                throw new ArithmeticException("Rounding necessary for " + dividend + " / " + divisor);
+        }
+    }
+
+    /**
+     * Converts a rate as a fraction to parts per million, rounding to the nearest part.
+     *
+     * @param rate the rate, e.g. 0.125 for 12.5%
+     * @return the rate in parts per million, e.g. 125000
+     */
+    public static long ratePpm(double rate) {
+        return Math.round(rate * RATE_SCALE);
+    }
+
+    /**
+     * Converts an amount in cents to dollars, for charts and other displays that need a {@code double}.
+     *
+     * @param cents the amount in cents
+     * @return the amount in dollars
+     */
+    public static double toDollars(long cents) {
+        return FixedPoint.toDouble(cents);
+    }
+
+    /**
+     * Formats an amount as dollars with two decimals and no dollar sign, e.g. 123456 as "1234.56".
+     *
+     * @param cents the amount in cents
+     * @return the formatted amount
+     */
+    public static String format(long cents) {
+        StringBuilder text = new StringBuilder(24);
+        if (cents < 0) {
+            text.append('-');
+        }
+        // Dividing first keeps Math.abs away from the smallest long, which has no positive counterpart
+        long whole = Math.abs(cents / CENTS_PER_DOLLAR);
+        long fraction = Math.abs(cents % CENTS_PER_DOLLAR);
+        text.append(whole).append('.');
+        if (fraction < 10) {
+            text.append('0');
+        }
+        return text.append(fraction).toString();
+    }
+}
@@ -0,0 +1,135 @@
+package com.project.hrpayrollsystem;
+
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Scene;
+import javafx.scene.image.Image;
+import javafx.stage.Stage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Switches the application window between its screens.
+ * <p>
+ * Each screen's FXML is loaded once and its scene and controller are kept, so switching screens only swaps the scene
+ * of the window instead of parsing the FXML and building the scene again. Icons are decoded once and shared.
+ * Controllers that show data implement {@link Refreshable} to bring it up to date each time their screen is shown.
+ * All methods must be called on the JavaFX application thread.
+ */
+public class Navigator {
+
+    private static final String TITLE_PREFIX = "HR Manager and Payroll System - ";
+
+    /**
+     * The screens of the application with their FXML file, window title and icon.
+     */
+    public enum Screen {
+        MAIN_MENU("mainMenu.fxml", "Main Menu", "home.png"),
+        EMPLOYEE_MANAGEMENT("employeeManagement.fxml", "Employee Management", "employees.png"),
+        PAYROLL_PROCESSING("payrollProcessing.fxml", "Payroll Processing and Reports", "usd-circle.png"),
+        DASHBOARD("dashboard.fxml", "Payroll Dashboard", "usd-circle.png"),
+        ADD_EMPLOYEE("addEmployee.fxml", "Add Employee", "square-plus.png"),
+        EDIT_EMPLOYEE("editEmployee.fxml", "Edit Employee", "square-plus.png");
+
+        private final String fxml;
+        private final String title;
+        private final String icon;
+
+        Screen(String fxml, String title, String icon) {
+            this.fxml = fxml;
+            this.title = title;
+            this.icon = icon;
+        }
+    }
+
+    /**
+     * Implemented by controllers whose screen shows data that may have changed while another screen was shown.
+     */
+    public interface Refreshable {
+        /**
+         * Called each time the screen is about to be shown.
+         */
+        void onShow();
+    }
+
+    private static final Map<Screen, Scene> scenes = new EnumMap<>(Screen.class);
+    private static final Map<Screen, Object> controllers = new EnumMap<>(Screen.class);
+    private static final Map<String, Image> icons = new HashMap<>();
+
+    private Navigator() {
+    }
+
+    /**
+     * Loads every screen ahead of time, so the first visit to a screen is as fast as later ones.
+     */
+    public static void preload() {
+        for (Screen screen : Screen.values()) {
+            load(screen);
+        }
+    }
+
+    /**
+     * Shows a screen in the given window, setting the window's title and icon.
+     *
+     * @param stage  the window to show the screen in
+     * @param screen the screen to show
+     */
+    public static void show(Stage stage, Screen screen) {
+        Scene scene = load(screen);
+        if (controllers.get(screen) instanceof Refreshable) {
+            ((Refreshable) controllers.get(screen)).onShow();
+        }
+        stage.getIcons().setAll(getIcon(screen.icon));
+        stage.setTitle(TITLE_PREFIX + screen.title);
+        if (stage.getScene() != scene) {
+            stage.setScene(scene);
+            stage.sizeToScene();
+        }
+    }
+
+    /**
+     * Returns the controller of a screen, for passing data to it before it is shown.
+     *
+     * @param screen the screen
+     * @param <T>    the controller type
+     * @return the controller of the screen
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T getController(Screen screen) {
+        load(screen);
+        return (T) controllers.get(screen);
+    }
+
+    /**
+     * Returns the shared decoded image of an icon.
+     *
+     * @param name the file name of the icon in the images folder
+     * @return the icon image
+     */
+    public static Image getIcon(String name) {
+        return icons.computeIfAbsent(name, icon -> new Image(Objects.requireNonNull(
+                Navigator.class.getResourceAsStream("/com/project/hrpayrollsystem/images/" + icon))));
+    }
+
+    /**
+     * Returns the scene of a screen, loading its FXML the first time.
+     */
+    private static Scene load(Screen screen) {
+        Scene scene = scenes.get(screen);
+        if (scene == null) {
+            try {
+                FXMLLoader loader = new FXMLLoader(Navigator.class.getResource("/com/project/hrpayrollsystem/fxml/" + screen.fxml));
+                scene = new Scene(loader.load());
+                scenes.put(screen, scene);
+                controllers.put(screen, loader.getController());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not load " + screen.fxml, e);
+            }
+        }
+        return scene;
+    }
+}
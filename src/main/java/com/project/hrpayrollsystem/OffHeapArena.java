@@ -0,0 +1,43 @@
+package com.project.hrpayrollsystem;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hands out memory outside the Java heap in slabs, for the records and strings of one roster generation.
+ * <p>
+ * The slabs are direct buffers, which the garbage collector neither scans nor copies; the heap only holds their
+ * small buffer objects, one per slab. An arena is never closed explicitly, as pay runs and pay-period snapshots
+ * may still read a generation after the next one was loaded. All its slabs are released together once nothing
+ * refers to the arena any more.
+ */
+final class OffHeapArena {
+
+    static final int SLAB_SIZE = 1 << 20;
+
+    private final List<ByteBuffer> slabs = new ArrayList<>();
+    private long reservedBytes;
+
+    /**
+     * Allocates a zeroed slab of {@value #SLAB_SIZE} bytes, or of the given size if that is larger.
+     *
+     * @param minimumSize the bytes the slab needs to hold at least
+     * @return the new slab
+     */
+    ByteBuffer allocate(int minimumSize) {
+        ByteBuffer slab = ByteBuffer.allocateDirect(Math.max(SLAB_SIZE, minimumSize));
+        slabs.add(slab);
+        reservedBytes += slab.capacity();
+        return slab;
+    }
+
+    /**
+     * Returns the bytes allocated outside the heap by this arena.
+     *
+     * @return the bytes held by the slabs
+     */
+    long getReservedBytes() {
+        return reservedBytes;
+    }
+}
@@ -0,0 +1,151 @@
+package com.project.hrpayrollsystem;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A read-only employee store that keeps its records outside the Java heap.
+ * <p>
+ * The records are read from the data file into fixed-width rows in the slabs of an {@link OffHeapArena}, one arena
+ * per loaded roster, with their names as codes into an {@link OffHeapStrings} dictionary in the same arena and their
+ * departments and bonuses as codes of {@link EmployeeCodes}. The heap holds a buffer object per slab and nothing per
+ * employee, so the old generation the collector has to scan stays the same size whatever the headcount. Records are decoded when they are asked for, and the
+ * {@link Employee} views shown in the tables are created for the visible rows only by {@link LazyEmployeeList}.
+ * <p>
+ * Unlike {@link MappedEmployeeStore}, the data file keeps its compact layout and the store does not depend on the
+ * file staying in place; it costs reading the whole file when the roster is loaded.
+ */
+public class OffHeapEmployeeStore implements EmployeeStore {
+
+    // id, first and last name codes, department and bonus codes, then wage and hours
+    static final int RECORD_SIZE = 5 * 4 + 2 * 8;
+    private static final int RECORDS_PER_SLAB = OffHeapArena.SLAB_SIZE / RECORD_SIZE;
+
+    private final OffHeapArena arena;
+    private final OffHeapStrings strings;
+    private final ByteBuffer[] slabs;
+    private final int recordCount;
+
+    private OffHeapEmployeeStore(OffHeapArena arena, OffHeapStrings strings, ByteBuffer[] slabs, int recordCount) {
+        this.arena = arena;
+        this.strings = strings;
+        this.slabs = slabs;
+        this.recordCount = recordCount;
+    }
+
+    /**
+     * Reads the records of a data file in any layout into a new store, one record at a time.
+     *
+     * @param path the data file
+     * @return the store holding the records
+     * @throws IOException if the file cannot be read
+     */
+    public static OffHeapEmployeeStore read(Path path) throws IOException {
+        Builder builder = new Builder();
+        EmployeeDataFile.read(path, builder::add);
+        return builder.build();
+    }
+
+    /**
+     * Copies employee records into a new store.
+     *
+     * @param records the records, in store order
+     * @return the store holding the records
+     */
+    public static OffHeapEmployeeStore of(List<EmployeeRecord> records) {
+        Builder builder = new Builder();
+        records.forEach(builder::add);
+        return builder.build();
+    }
+
+    /**
+     * Returns the number of records in the store.
+     *
+     * @return the record count
+     */
+    public int size() {
+        return recordCount;
+    }
+
+    /**
+     * Decodes the record at the given position.
+     *
+     * @param index the record position
+     * @return the decoded employee record
+     */
+    public EmployeeRecord recordAt(int index) {
+        ByteBuffer slab = slab(index);
+        int position = position(index);
+        return EmployeeRecord.ofCodes(slab.getInt(position),
+                strings.get(slab.getInt(position + 4)),
+                strings.get(slab.getInt(position + 8)),
+                slab.getInt(position + 12),
+                slab.getLong(position + 20),
+                slab.getLong(position + 28),
+                slab.getInt(position + 16));
+    }
+
+    public int idAt(int index) { return slab(index).getInt(position(index)); }
+    public int departmentCodeAt(int index) { return slab(index).getInt(position(index) + 12); }
+    public long wageCentsAt(int index) { return slab(index).getLong(position(index) + 20); }
+    public long hoursHundredthsAt(int index) { return slab(index).getLong(position(index) + 28); }
+    public long bonusCentsAt(int index) { return EmployeeCodes.bonusCents(slab(index).getInt(position(index) + 16)); }
+
+    /**
+     * Returns the bytes the store holds outside the heap, records and strings together.
+     *
+     * @return the off-heap bytes of the store
+     */
+    public long getOffHeapBytes() {
+        return arena.getReservedBytes();
+    }
+
+    private ByteBuffer slab(int index) {
+        if (index < 0 || index >= recordCount) {
+            throw new IndexOutOfBoundsException("Record " + index + " of " + recordCount);
+        }
+        return slabs[index / RECORDS_PER_SLAB];
+    }
+
+    private static int position(int index) {
+        return index % RECORDS_PER_SLAB * RECORD_SIZE;
+    }
+
+    /**
+     * Writes records into the slabs of a new arena one after another.
+     */
+    private static final class Builder {
+        private final OffHeapArena arena = new OffHeapArena();
+        private final OffHeapStrings strings = new OffHeapStrings(arena);
+        private ByteBuffer[] slabs = new ByteBuffer[16];
+        private int count;
+
+        void add(EmployeeRecord record) {
+            if (count % RECORDS_PER_SLAB == 0) {
+                int slab = count / RECORDS_PER_SLAB;
+                if (slab == slabs.length) {
+                    slabs = Arrays.copyOf(slabs, slab * 2);
+                }
+                slabs[slab] = arena.allocate(OffHeapArena.SLAB_SIZE);
+            }
+            slabs[count / RECORDS_PER_SLAB].position(position(count));
+            slabs[count / RECORDS_PER_SLAB].putInt(record.getId())
+                    .putInt(strings.intern(record.getFirstName()))
+                    .putInt(strings.intern(record.getLastName()))
+                    .putInt(record.getDepartmentCode())
+                    .putInt(record.getBonusCode())
+                    .putLong(record.getWageCents())
+                    .putLong(record.getHoursHundredths());
+            count++;
+        }
+
+        OffHeapEmployeeStore build() {
+            strings.freeze();
+            int slabCount = (count + RECORDS_PER_SLAB - 1) / RECORDS_PER_SLAB;
+            return new OffHeapEmployeeStore(arena, strings, Arrays.copyOf(slabs, slabCount), count);
+        }
+    }
+}
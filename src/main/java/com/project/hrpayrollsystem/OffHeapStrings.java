@@ -0,0 +1,95 @@
+package com.project.hrpayrollsystem;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A dictionary of strings kept outside the heap, where every distinct string is stored once as length-prefixed
+ * UTF-8 and referred to by its code, numbered from 0 in the order the strings were added.
+ * <p>
+ * Strings are added while a roster is being loaded and only read afterwards; reading creates a new {@link String}
+ * each time. Only the map from strings to codes used while adding is on the heap, and it is dropped by
+ * {@link #freeze()}.
+ */
+final class OffHeapStrings {
+
+    // The slab and position of every code, as slab << 32 | position, in slabs of longs of their own
+    private static final int LOCATIONS_PER_SLAB = OffHeapArena.SLAB_SIZE / Long.BYTES;
+
+    private final OffHeapArena arena;
+    private ByteBuffer[] slabs = new ByteBuffer[0];
+    private ByteBuffer[] locations = new ByteBuffer[0];
+    private ByteBuffer current;
+    private int count;
+    private Map<String, Integer> codes = new HashMap<>();
+
+    OffHeapStrings(OffHeapArena arena) {
+        this.arena = arena;
+    }
+
+    /**
+     * Returns the code of a string, adding it if it is not in the dictionary yet.
+     *
+     * @param string the string
+     * @return its code
+     * @throws IllegalStateException if the dictionary was frozen
+     */
+    int intern(String string) {
+        if (codes == null) {
+            throw new IllegalStateException("The dictionary is frozen");
+        }
+        Integer code = codes.get(string);
+        if (code != null) {
+            return code;
+        }
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        int size = Integer.BYTES + bytes.length;
+        if (current == null || current.remaining() < size) {
+            current = arena.allocate(size);
+            slabs = append(slabs, current);
+        }
+        long location = (long) (slabs.length - 1) << 32 | current.position();
+        current.putInt(bytes.length).put(bytes);
+
+        if (count % LOCATIONS_PER_SLAB == 0) {
+            locations = append(locations, arena.allocate(OffHeapArena.SLAB_SIZE));
+        }
+        locations[count / LOCATIONS_PER_SLAB].putLong(count % LOCATIONS_PER_SLAB * Long.BYTES, location);
+        codes.put(string, count);
+        return count++;
+    }
+
+    /**
+     * Drops the map used for adding strings, after which the dictionary can only be read.
+     */
+    void freeze() {
+        codes = null;
+    }
+
+    /**
+     * Decodes the string with the given code. Safe to call from several threads once the dictionary is frozen.
+     *
+     * @param code the code of the string
+     * @return the string
+     */
+    String get(int code) {
+        long location = locations[code / LOCATIONS_PER_SLAB].getLong(code % LOCATIONS_PER_SLAB * Long.BYTES);
+        ByteBuffer slab = slabs[(int) (location >>> 32)];
+        int position = (int) location;
+        byte[] bytes = new byte[slab.getInt(position)];
+        // Absolute bulk read, so concurrent readers never share a buffer position
+        slab.get(position + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    int size() { return count; }
+
+    private static ByteBuffer[] append(ByteBuffer[] slabs, ByteBuffer slab) {
+        ByteBuffer[] grown = Arrays.copyOf(slabs, slabs.length + 1);
+        grown[slabs.length] = slab;
+        return grown;
+    }
+}
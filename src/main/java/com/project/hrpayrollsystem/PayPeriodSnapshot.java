@@ -0,0 +1,32 @@
+package com.project.hrpayrollsystem;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * The records of all employees as they were paid for a pay period, so the pay run of a past period can be run
+ * again with the same figures however the roster changed since.
+ * <p>
+ * A snapshot taken from the roster shares the unchanged records with it rather than copying them,
+ * see {@link EmployeeRepository#snapshot()}; one read back from its file holds its own copy.
+ */
+public final class PayPeriodSnapshot {
+
+    private final YearMonth period;
+    private final List<EmployeeRecord> records;
+
+    /**
+     * Creates a snapshot of a pay period.
+     *
+     * @param period  the pay period
+     * @param records the records of the employees paid for it, which must not change afterwards
+     */
+    public PayPeriodSnapshot(YearMonth period, List<EmployeeRecord> records) {
+        this.period = period;
+        this.records = records;
+    }
+
+    public YearMonth getPeriod() { return period; }
+    public List<EmployeeRecord> getRecords() { return records; }
+    public int getEmployeeCount() { return records.size(); }
+}
@@ -0,0 +1,49 @@
+package com.project.hrpayrollsystem;
+
+/**
+ * Represents the pay figures of a single employee for one pay run.
+ * Instances are created by the {@link PayrollEngine} and are immutable. Amounts are in cents.
+ */
+public class PayResult {
+    private final EmployeeRecord employee;
+    private final long totalSalaryCents;
+    private final double taxRate;
+    private final long taxCents;
+    private final long deductionCents;
+    private final long bonusCents;
+
+    /**
+     * Constructs a pay result with the given figures.
+     *
+     * @param employee         the record of the employee the figures belong to
+     * @param totalSalaryCents the total salary including the bonus, in cents
+     * @param taxRate          the tax rate applied to the total salary
+     * @param taxCents         the taxes owed, in cents
+     * @param deductionCents   the deductions taken from the total salary, in cents
+     * @param bonusCents       the bonus included in the total salary, in cents
+     */
+    public PayResult(EmployeeRecord employee, long totalSalaryCents, double taxRate, long taxCents, long deductionCents, long bonusCents) {
+        this.employee = employee;
+        this.totalSalaryCents = totalSalaryCents;
+        this.taxRate = taxRate;
+        this.taxCents = taxCents;
+        this.deductionCents = deductionCents;
+        this.bonusCents = bonusCents;
+    }
+
+    public EmployeeRecord getEmployee() { return employee; }
+    public long getTotalSalaryCents() { return totalSalaryCents; }
+    public double getTaxRate() { return taxRate; }
+    public long getTaxCents() { return taxCents; }
+    public long getDeductionCents() { return deductionCents; }
+    public long getBonusCents() { return bonusCents; }
+
+    /**
+     * Returns the amount paid out to the employee after taxes and deductions.
+     *
+     * @return the net pay in cents
+     */
+    public long getNetPayCents() {
+        return Money.subtract(Money.subtract(totalSalaryCents, taxCents), deductionCents);
+    }
+}
@@ -0,0 +1,205 @@
+package com.project.hrpayrollsystem;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Remembers the pay results of the employees calculated most recently, so selecting an employee again or going over
+ * an unchanged roster costs a lookup rather than a calculation.
+ * <p>
+ * Results are kept by employee ID. The pay figures of the record a result was calculated from serve as its version:
+ * a result is only handed out for a record with the same wage, hours, bonus and department, so a changed employee is
+ * calculated again while a change to their name is not. A cache calculates with one set of tax rules; it has to be
+ * cleared when the rules change.
+ * <p>
+ * A calculation only takes a few tens of nanoseconds, so a lookup has to cost less: the results are held in an
+ * array rather than a map, without locks or boxed keys. Each employee ID can only go in one set of two slots, and
+ * a new result replaces the one of its set used least recently.
+ * <p>
+ * Safe to use from several threads. Results are calculated outside any lock, so two threads asking for the same
+ * employee at once may both calculate it; the hit and miss counts are exact.
+ */
+public class PayResultCache {
+
+    private static final int WAYS = 2;
+
+    private final Function<EmployeeRecord, PayResult> calculator;
+    // The slots of set s are WAYS * s up to WAYS * s + WAYS - 1
+    private final AtomicReferenceArray<PayResult> slots;
+    private final int setMask;
+    // The slot of each set used last. Written without synchronization, as a stale value only evicts the other result.
+    private final byte[] lastUsed;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructs an empty cache.
+     *
+     * @param capacity   the number of results kept at least, rounded up to a power of two
+     * @param calculator calculates the result of an employee record that is not in the cache
+     */
+    public PayResultCache(int capacity, Function<EmployeeRecord, PayResult> calculator) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity out of range: " + capacity);
+        }
+        int sets = Math.max(1, Integer.highestOneBit((capacity + WAYS - 1) / WAYS * 2 - 1));
+        this.calculator = calculator;
+        this.slots = new AtomicReferenceArray<>(sets * WAYS);
+        this.setMask = sets - 1;
+        this.lastUsed = new byte[sets];
+    }
+
+    /**
+     * Returns the pay result of an employee record, calculating it if the cache holds no result for the same pay
+     * figures.
+     *
+     * @param record the employee record
+     * @return the pay result of the record
+     */
+    public PayResult get(EmployeeRecord record) {
+        PayResult cached = getIfPresent(record);
+        if (cached != null) {
+            return cached;
+        }
+        misses.increment();
+        PayResult result = calculator.apply(record);
+        store(result);
+        return result;
+    }
+
+    /**
+     * Returns the pay result of an employee record if the cache holds one for the same pay figures, without
+     * calculating it otherwise.
+     *
+     * @param record the employee record
+     * @return the cached pay result of the record, or null if there is none
+     */
+    public PayResult getIfPresent(EmployeeRecord record) {
+        int set = set(record.getId());
+        for (int way = 0; way < WAYS; way++) {
+            int slot = set * WAYS + way;
+            PayResult cached = slots.get(slot);
+            if (cached != null && cached.getEmployee().getId() == record.getId()) {
+                if (!samePayFigures(cached.getEmployee(), record)) {
+                    return null;
+                }
+                hits.increment();
+                lastUsed[set] = (byte) way;
+                if (cached.getEmployee() == record) {
+                    return cached;
+                }
+                // Same pay, but the name changed; the result has to show the current record
+                PayResult rebound = new PayResult(record, cached.getTotalSalaryCents(), cached.getTaxRate(),
+                        cached.getTaxCents(), cached.getDeductionCents(), cached.getBonusCents());
+                slots.compareAndSet(slot, cached, rebound);
+                return rebound;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Drops the result of an employee, once their pay figures changed or they were deleted.
+     *
+     * @param id the employee ID
+     */
+    public void invalidate(int id) {
+        int set = set(id);
+        for (int slot = set * WAYS; slot < set * WAYS + WAYS; slot++) {
+            PayResult cached = slots.get(slot);
+            if (cached != null && cached.getEmployee().getId() == id) {
+                slots.compareAndSet(slot, cached, null);
+            }
+        }
+    }
+
+    /**
+     * Drops every result, for example when the tax rules change.
+     */
+    public void clear() {
+        for (int slot = 0; slot < slots.length(); slot++) {
+            slots.set(slot, null);
+        }
+    }
+
+    /**
+     * Returns the number of results the cache holds, counting them.
+     *
+     * @return the number of cached results
+     */
+    public int size() {
+        int size = 0;
+        for (int slot = 0; slot < slots.length(); slot++) {
+            if (slots.get(slot) != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the largest number of results the cache can hold.
+     *
+     * @return the number of slots
+     */
+    public int capacity() {
+        return slots.length();
+    }
+
+    /**
+     * Returns how many times a result was found in the cache.
+     *
+     * @return the number of hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns how many times a result had to be calculated.
+     *
+     * @return the number of misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Puts a result into the slot of its set that held an older result of the same employee, or else into an empty
+     * slot or the one used least recently.
+     */
+    private void store(PayResult result) {
+        int id = result.getEmployee().getId();
+        int set = set(id);
+        int victim = (lastUsed[set] + 1) % WAYS;
+        for (int way = 0; way < WAYS; way++) {
+            PayResult cached = slots.get(set * WAYS + way);
+            if (cached == null || cached.getEmployee().getId() == id) {
+                victim = way;
+                break;
+            }
+        }
+        slots.set(set * WAYS + victim, result);
+        lastUsed[set] = (byte) victim;
+    }
+
+    private int set(int id) {
+        // Employee IDs are handed out one after another, so their low bits already spread them evenly over the sets
+        return id & setMask;
+    }
+
+    /**
+     * Tells whether two records of an employee are paid the same: same wage, hours, bonus and department.
+     *
+     * @param previous a record of the employee
+     * @param current  another record of the employee
+     * @return true if a pay result of one holds for the other
+     */
+    public static boolean samePayFigures(EmployeeRecord previous, EmployeeRecord current) {
+        return previous.getWageCents() == current.getWageCents()
+                && previous.getHoursHundredths() == current.getHoursHundredths()
+                && previous.getBonusCode() == current.getBonusCode()
+                && previous.getDepartmentCode() == current.getDepartmentCode();
+    }
+}
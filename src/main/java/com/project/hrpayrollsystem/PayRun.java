@@ -0,0 +1,76 @@
+package com.project.hrpayrollsystem;
+
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * Represents a complete pay run produced by the {@link PayrollEngine}.
+ * Holds the pay figures of every employee in the run together with the run totals.
+ * The figures are stored in one primitive array per column, so a run over a large roster
+ * does not allocate an object per employee; {@link PayResult}s are only created when read.
+ * Amounts and totals are in cents, so the totals are exact.
+ */
+public class PayRun {
+    private final EmployeeRecord[] employees;
+    private final long[] totalSalary;
+    private final double[] taxRate;
+    private final long[] taxes;
+    private final long[] deductions;
+    private final long[] bonus;
+    private final long[] totals;
+
+    PayRun(EmployeeRecord[] employees, long[] totalSalary, double[] taxRate, long[] taxes,
+           long[] deductions, long[] bonus, long[] totals) {
+        this.employees = employees;
+        this.totalSalary = totalSalary;
+        this.taxRate = taxRate;
+        this.taxes = taxes;
+        this.deductions = deductions;
+        this.bonus = bonus;
+        this.totals = totals;
+    }
+
+    /**
+     * Returns the pay result of the employee at the given position in the run.
+     *
+     * @param index the position of the employee, in the order passed to the engine
+     * @return the pay result of the employee
+     */
+    public PayResult getResult(int index) {
+        return new PayResult(employees[index], totalSalary[index], taxRate[index], taxes[index], deductions[index], bonus[index]);
+    }
+
+    /**
+     * Returns the pay results in the same order as the employees passed to the engine.
+     *
+     * @return an unmodifiable list view of the pay results
+     */
+    public List<PayResult> getResults() {
+        return new AbstractList<>() {
+            @Override
+            public PayResult get(int index) {
+                return getResult(index);
+            }
+
+            @Override
+            public int size() {
+                return employees.length;
+            }
+        };
+    }
+
+    public int getEmployeeCount() { return employees.length; }
+    public long getTotalSalaryCents() { return totals[0]; }
+    public long getTotalTaxCents() { return totals[1]; }
+    public long getTotalDeductionCents() { return totals[2]; }
+    public long getTotalBonusCents() { return totals[3]; }
+
+    /**
+     * Returns the total amount paid out to all employees after taxes and deductions.
+     *
+     * @return the total net pay of the run in cents
+     */
+    public long getTotalNetPayCents() {
+        return Money.subtract(Money.subtract(getTotalSalaryCents(), getTotalTaxCents()), getTotalDeductionCents());
+    }
+}
@@ -0,0 +1,222 @@
+package com.project.hrpayrollsystem;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes a {@link PayRun} to a file for finance or the bank.
+ * <p>
+ * Two layouts are supported, each with one line per employee holding the employee ID, gross pay, tax rate, taxes,
+ * deductions, bonus and net pay:
+ * <ul>
+ *     <li>CSV, with a header line, amounts in dollars with two decimals and the tax rate as a percentage,</li>
+ *     <li>a fixed-width bank-transfer file of {@value #BANK_LINE_LENGTH}-character lines: a "D" detail line per employee
+ *     with the ID in 10 digits, the tax rate in basis points in 5 digits and each amount in cents in 13 digits,
+ *     all zero-padded, followed by a "T" trailer line with the number of detail lines and the total net pay.</li>
+ * </ul>
+ * Lines are encoded straight into a direct buffer that is written to a {@link FileChannel} whenever it fills up,
+ * so the output is never held in memory as a whole. Numbers are written digit by digit instead of through
+ * {@link String#format}, so no strings are created per line.
+ * <p>
+ * If writing fails or the writing thread is interrupted, for example because the export was cancelled, the partly
+ * written file is deleted. A file that could not be opened is left as it was.
+ */
+public class PayRunExporter {
+
+    static final int BANK_LINE_LENGTH = 81;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // Longest line either layout writes, so a line never has to be split across flushes
+    private static final int MAX_LINE_LENGTH = 160;
+    private static final byte[] CSV_HEADER =
+            "Employee ID,Gross,Tax Rate,Taxes,Deductions,Bonus,Net Pay\n".getBytes(StandardCharsets.US_ASCII);
+    private static final int ID_WIDTH = 10;
+    private static final int RATE_WIDTH = 5;
+    private static final int AMOUNT_WIDTH = 13;
+    private static final int COUNT_WIDTH = 10;
+    private static final int TOTAL_WIDTH = 15;
+
+    private PayRunExporter() {
+    }
+
+    /**
+     * Writes the pay run as CSV.
+     *
+     * @param run  the pay run to export
+     * @param path the file to write; replaced if it exists
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeCsv(PayRun run, Path path) throws IOException {
+        FileChannel channel = open(path);
+        try (channel) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            buffer.put(CSV_HEADER);
+            for (int i = 0; i < run.getEmployeeCount(); i++) {
+                ensureRemaining(channel, buffer);
+                PayResult result = run.getResult(i);
+                putNumber(buffer, result.getEmployee().getId());
+                buffer.put((byte) ',');
+                putDecimal(buffer, result.getTotalSalaryCents());
+                buffer.put((byte) ',');
+                putDecimal(buffer, toBasisPoints(result.getTaxRate()));
+                buffer.put((byte) ',');
+                putDecimal(buffer, result.getTaxCents());
+                buffer.put((byte) ',');
+                putDecimal(buffer, result.getDeductionCents());
+                buffer.put((byte) ',');
+                putDecimal(buffer, result.getBonusCents());
+                buffer.put((byte) ',');
+                putDecimal(buffer, result.getNetPayCents());
+                buffer.put((byte) '\n');
+            }
+            flush(channel, buffer);
+        } catch (IOException | RuntimeException e) {
+            deletePartialFile(path, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Writes the pay run as a fixed-width bank-transfer file.
+     * The trailer total is the sum of the net amounts on the detail lines, so the file always balances.
+     *
+     * @param run  the pay run to export
+     * @param path the file to write; replaced if it exists
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeBankFile(PayRun run, Path path) throws IOException {
+        FileChannel channel = open(path);
+        try (channel) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            long totalNetCents = 0;
+            for (int i = 0; i < run.getEmployeeCount(); i++) {
+                ensureRemaining(channel, buffer);
+                PayResult result = run.getResult(i);
+                long netCents = result.getNetPayCents();
+                buffer.put((byte) 'D');
+                putFixed(buffer, result.getEmployee().getId(), ID_WIDTH);
+                putFixed(buffer, result.getTotalSalaryCents(), AMOUNT_WIDTH);
+                putFixed(buffer, toBasisPoints(result.getTaxRate()), RATE_WIDTH);
+                putFixed(buffer, result.getTaxCents(), AMOUNT_WIDTH);
+                putFixed(buffer, result.getDeductionCents(), AMOUNT_WIDTH);
+                putFixed(buffer, result.getBonusCents(), AMOUNT_WIDTH);
+                putFixed(buffer, netCents, AMOUNT_WIDTH);
+                buffer.put((byte) '\n');
+                totalNetCents = Money.add(totalNetCents, netCents);
+            }
+            ensureRemaining(channel, buffer);
+            buffer.put((byte) 'T');
+            putFixed(buffer, run.getEmployeeCount(), COUNT_WIDTH);
+            putFixed(buffer, totalNetCents, TOTAL_WIDTH);
+            for (int i = 1 + COUNT_WIDTH + TOTAL_WIDTH; i < BANK_LINE_LENGTH; i++) {
+                buffer.put((byte) ' ');
+            }
+            buffer.put((byte) '\n');
+            flush(channel, buffer);
+        } catch (IOException | RuntimeException e) {
+            deletePartialFile(path, e);
+            throw e;
+        }
+    }
+
+    private static long toBasisPoints(double rate) {
+        return Math.round(rate * 10000);
+    }
+
+    /**
+     * Writes a number without padding.
+     */
+    private static void putNumber(ByteBuffer buffer, long value) {
+        if (value < 0) {
+            buffer.put((byte) '-');
+            value = -value;
+        }
+        putDigits(buffer, value, digitCount(value));
+    }
+
+    /**
+     * Writes a number of hundredths as a decimal with two places, e.g. 123456 as "1234.56".
+     */
+    private static void putDecimal(ByteBuffer buffer, long hundredths) {
+        if (hundredths < 0) {
+            buffer.put((byte) '-');
+            hundredths = -hundredths;
+        }
+        long whole = hundredths / FixedPoint.SCALE;
+        putDigits(buffer, whole, digitCount(whole));
+        buffer.put((byte) '.');
+        putDigits(buffer, hundredths % FixedPoint.SCALE, 2);
+    }
+
+    /**
+     * Writes a number zero-padded to the given width; a negative number starts with a minus sign instead of a zero.
+     */
+    private static void putFixed(ByteBuffer buffer, long value, int width) {
+        if (value < 0) {
+            buffer.put((byte) '-');
+            putDigits(buffer, -value, width - 1);
+        } else {
+            putDigits(buffer, value, width);
+        }
+    }
+
+    /**
+     * Writes the lowest digits of a non-negative number into exactly the given number of positions, zero-padded.
+     */
+    private static void putDigits(ByteBuffer buffer, long value, int width) {
+        int start = buffer.position();
+        for (int i = width - 1; i >= 0; i--) {
+            buffer.put(start + i, (byte) ('0' + value % 10));
+            value /= 10;
+        }
+        buffer.position(start + width);
+    }
+
+    private static int digitCount(long value) {
+        int digits = 1;
+        while (value >= 10) {
+            value /= 10;
+            digits++;
+        }
+        return digits;
+    }
+
+    private static FileChannel open(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Deletes a file that was opened for the export but not written completely.
+     * Only called once the file was opened, so a file the export never touched is never deleted.
+     */
+    private static void deletePartialFile(Path path, Exception cause) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Flushes the buffer to the channel if the next line might not fit.
+     */
+    private static void ensureRemaining(FileChannel channel, ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < MAX_LINE_LENGTH) {
+            flush(channel, buffer);
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
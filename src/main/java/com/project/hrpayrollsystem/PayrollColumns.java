@@ -0,0 +1,110 @@
+package com.project.hrpayrollsystem;
+
+import java.util.List;
+
+/**
+ * The pay figures of a roster held as columns: one primitive array per figure, with the employee at the same
+ * position in each, and the department of each employee as a code into a list of department names, those of
+ * {@link EmployeeCodes} for columns copied from employees.
+ * <p>
+ * A {@link PayrollKernel} reads the figures of neighbouring employees from neighbouring array slots rather than
+ * from one record object after another, so a pay run streams through memory and the kernel can compute several
+ * employees per instruction. The arrays are shared, not copied; nothing may change them while a pay run reads them.
+ */
+public final class PayrollColumns {
+
+    final long[] wageCents;
+    final long[] hoursHundredths;
+    final long[] bonusCents;
+    final int[] departmentCodes;
+    private final List<String> departments;
+
+    /**
+     * Creates columns from arrays of the same length, without copying them.
+     *
+     * @param wageCents       the hourly wage of each employee in cents
+     * @param hoursHundredths the hours each employee worked in hundredths of an hour
+     * @param bonusCents      the bonus of each employee in cents
+     * @param departmentCodes the department of each employee, as a position in the department names
+     * @param departments     the department names
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    public PayrollColumns(long[] wageCents, long[] hoursHundredths, long[] bonusCents,
+                          int[] departmentCodes, List<String> departments) {
+        if (hoursHundredths.length != wageCents.length || bonusCents.length != wageCents.length
+                || departmentCodes.length != wageCents.length) {
+            throw new IllegalArgumentException("Every column needs one entry per employee");
+        }
+        this.wageCents = wageCents;
+        this.hoursHundredths = hoursHundredths;
+        this.bonusCents = bonusCents;
+        this.departmentCodes = departmentCodes;
+        this.departments = departments;
+    }
+
+    /**
+     * Copies the pay figures of employee records into columns.
+     *
+     * @param records the records, in the order of the columns
+     * @return the columns of the records
+     */
+    public static PayrollColumns of(EmployeeRecord[] records) {
+        Builder builder = new Builder(records.length);
+        for (EmployeeRecord record : records) {
+            builder.add(record.getDepartmentCode(), record.getWageCents(), record.getHoursHundredths(), record.getBonusCents());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Copies the pay figures of a roster snapshot into columns, reading unchanged stored employees straight from
+     * the store without creating their records.
+     *
+     * @param snapshot the roster snapshot, in the order of the columns
+     * @return the columns of the snapshot
+     */
+    public static PayrollColumns of(EmployeeRepository.Snapshot snapshot) {
+        Builder builder = new Builder(snapshot.size());
+        snapshot.forEachPayFigures((id, departmentCode, wageCents, hoursHundredths, bonusCents) ->
+                builder.add(departmentCode, wageCents, hoursHundredths, bonusCents));
+        return builder.build();
+    }
+
+    public int size() { return wageCents.length; }
+    public long getWageCents(int index) { return wageCents[index]; }
+    public long getHoursHundredths(int index) { return hoursHundredths[index]; }
+    public long getBonusCents(int index) { return bonusCents[index]; }
+    public int getDepartmentCode(int index) { return departmentCodes[index]; }
+    public String getDepartment(int index) { return departments.get(departmentCodes[index]); }
+    public List<String> getDepartments() { return departments; }
+
+    /**
+     * Fills the columns one employee at a time, with the department codes of {@link EmployeeCodes}.
+     */
+    private static final class Builder {
+        private final long[] wageCents;
+        private final long[] hoursHundredths;
+        private final long[] bonusCents;
+        private final int[] departmentCodes;
+        private int size;
+
+        Builder(int capacity) {
+            wageCents = new long[capacity];
+            hoursHundredths = new long[capacity];
+            bonusCents = new long[capacity];
+            departmentCodes = new int[capacity];
+        }
+
+        void add(int departmentCode, long wage, long hours, long bonus) {
+            wageCents[size] = wage;
+            hoursHundredths[size] = hours;
+            bonusCents[size] = bonus;
+            departmentCodes[size++] = departmentCode;
+        }
+
+        PayrollColumns build() {
+            // Taken after the codes were read, so it names every code in the columns
+            return new PayrollColumns(wageCents, hoursHundredths, bonusCents, departmentCodes, EmployeeCodes.departments());
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.project.hrpayrollsystem;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The PayrollEngine class calculates pay figures independently of the user interface.
+ * It can calculate the pay of a single employee or run the payroll of a whole roster in parallel
+ * on a fork-join pool, producing a {@link PayRun} with the per-employee results and the run totals.
+ * All amounts are whole cents calculated with {@link Money}, so run totals are exact; amounts between two cents
+ * are rounded by the rounding mode of the tax rules.
+ * A pay run copies the pay figures of the roster into {@link PayrollColumns} and computes them with a
+ * {@link PayrollKernel}, the vector one when the Vector API is available.
+ */
+public class PayrollEngine {
+
+    // Number of employees below which a pay run task stops splitting and computes sequentially
+    private static final int SEQUENTIAL_THRESHOLD = 4096;
+    // The tax table and deductions, read once from the tax tables file
+    private static final TaxEngine TAX_ENGINE = TaxEngine.load();
+    // Computes the figures of a pay run, several employees at a time where the CPU allows
+    private static final PayrollKernel KERNEL = PayrollKernel.forRules(TAX_ENGINE);
+    // Set -Dhrpayroll.payResultCacheSize=... to keep the pay results of more or fewer recently calculated employees
+    private static final int RESULT_CACHE_SIZE = Integer.getInteger("hrpayroll.payResultCacheSize", 10_000);
+    // The results calculated with TAX_ENGINE; the tax rules are read once, so the cache never has to be cleared
+    private static final PayResultCache RESULTS = new PayResultCache(RESULT_CACHE_SIZE, PayrollEngine::compute);
+
+    /**
+     * Follows a pay run while it is computed, and can stop it.
+     */
+    public interface RunMonitor {
+        /**
+         * Called before each range of employees is computed; the run is abandoned once this returns true.
+         *
+         * @return true if the run should stop
+         */
+        boolean isCancelled();
+
+        /**
+         * Called from the pool threads each time a range of employees has been computed.
+         *
+         * @param employees the number of employees in the range
+         */
+        void completed(int employees);
+    }
+
+    // Monitors a run that cannot be stopped and whose progress nobody follows
+    private static final RunMonitor UNMONITORED = new RunMonitor() {
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public void completed(int employees) {
+        }
+    };
+
+    private PayrollEngine() {
+    }
+
+    /**
+     * Calculates the pay figures of a single employee.
+     *
+     * @param employee the employee to calculate
+     * @return the pay result of the employee
+     */
+    public static PayResult calculate(Employee employee) {
+        return calculate(employee.getRecord());
+    }
+
+    /**
+     * Calculates the pay figures of a single employee record, or returns them from the result cache if the employee
+     * was calculated before with the same pay figures.
+     *
+     * @param record the employee record to calculate
+     * @return the pay result of the employee
+     */
+    public static PayResult calculate(EmployeeRecord record) {
+        return RESULTS.get(record);
+    }
+
+    /**
+     * Returns the cache of single-employee pay results, for its hit and miss counts.
+     *
+     * @return the pay result cache
+     */
+    public static PayResultCache getResultCache() {
+        return RESULTS;
+    }
+
+    /**
+     * Forgets the cached pay result of an employee whose pay figures changed or who was deleted.
+     *
+     * @param id the employee ID
+     */
+    static void invalidateResult(int id) {
+        RESULTS.invalidate(id);
+    }
+
+    private static PayResult compute(EmployeeRecord record) {
+        long totalSalaryCents = calculateTotalSalaryCents(record);
+        long taxCents = TAX_ENGINE.getTaxCents(totalSalaryCents);
+        double taxRate = TAX_ENGINE.getTaxRate(totalSalaryCents, taxCents);
+        long deductionCents = TAX_ENGINE.getDeductionCents(totalSalaryCents);
+        return new PayResult(record, totalSalaryCents, taxRate, taxCents, deductionCents, record.getBonusCents());
+    }
+
+    /**
+     * Runs the payroll of every given employee on the common fork-join pool.
+     *
+     * @param employees the employees to pay, for example {@link EmployeeManager#getEmployeeList()}
+     * @return the pay run with one result per employee, in iteration order
+     */
+    public static PayRun run(Iterable<Employee> employees) {
+        return run(toRecords(employees), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Runs the payroll of every given employee record on the given fork-join pool.
+     * Each task works on a range of the pay columns and writes its figures straight into the columns of the run,
+     * so no objects are allocated per employee.
+     *
+     * @param records the employee records to pay
+     * @param pool    the pool the pay run is split across
+     * @return the pay run with one result per record, in array order
+     */
+    public static PayRun run(EmployeeRecord[] records, ForkJoinPool pool) {
+        return run(records, pool, UNMONITORED);
+    }
+
+    /**
+     * Runs the payroll of every given employee record on the given fork-join pool, reporting each computed range
+     * of records to the monitor and stopping once the monitor reports the run as cancelled.
+     *
+     * @param records the employee records to pay
+     * @param pool    the pool the pay run is split across
+     * @param monitor follows the progress of the run
+     * @return the pay run with one result per record, in array order
+     * @throws CancellationException if the monitor cancelled the run
+     * @throws ArithmeticException   if an amount or a total does not fit in a long
+     */
+    public static PayRun run(EmployeeRecord[] records, ForkJoinPool pool, RunMonitor monitor) {
+        int count = records.length;
+        PayrollColumns columns = PayrollColumns.of(records);
+        PayRunTask task = new PayRunTask(columns, new long[count], new double[count], new long[count],
+                new long[count], monitor, 0, count);
+        long[] totals = pool.invoke(task);
+        // The bonus column of the run is the one it was computed from
+        return new PayRun(records, task.totalSalary, task.taxRate, task.taxes, task.deductions, columns.bonusCents, totals);
+    }
+
+    /**
+     * Returns the name of the kernel pay runs are computed with, "scalar" or "vector" with its number of lanes.
+     *
+     * @return the name of the payroll kernel
+     */
+    public static String getKernelName() {
+        return KERNEL.getName();
+    }
+
+    /**
+     * Calculates the total salary for an employee.
+     * The total salary is calculated based on the employee's wage, hours worked, and bonus.
+     *
+     * @param record the record of the employee for whom the total salary is calculated
+     * @return the total salary for the employee in cents
+     */
+    public static long calculateTotalSalaryCents(EmployeeRecord record) {
+        return calculateTotalSalaryCents(record.getWageCents(), record.getHoursHundredths(), record.getBonusCents());
+    }
+
+    /**
+     * Calculates the total salary from an employee's pay figures.
+     *
+     * @param wageCents       the hourly wage in cents
+     * @param hoursHundredths the hours worked in hundredths of an hour
+     * @param bonusCents      the bonus in cents
+     * @return the total salary in cents
+     * @throws ArithmeticException if the total salary does not fit in a long
+     */
+    public static long calculateTotalSalaryCents(long wageCents, long hoursHundredths, long bonusCents) {
+        // Calculate total salary based on wage, hours worked, and bonus
+        long baseSalaryCents = Money.multiply(wageCents, hoursHundredths, TAX_ENGINE.getRounding());
+        return Money.add(baseSalaryCents, bonusCents);
+    }
+
+    /**
+     * Returns the bonus amount based on the given bonus code.
+     *
+     * @param bonus the bonus code
+     * @return the bonus amount in cents
+     */
+    public static long getBonusCents(String bonus) {
+        return switch (bonus) {
+            case "$1000" -> 100_000;
+            case "$5000" -> 500_000;
+            case "$10000" -> 1_000_000;
+            default -> 0; // No bonus
+        };
+    }
+
+    /**
+     * Calculates the tax rate based on the total salary, using the configured tax table.
+     * For a marginal table this is the effective rate: the taxes divided by the total salary.
+     *
+     * @param totalSalaryCents the total salary of an employee in cents
+     * @return the tax rate applicable to the total salary
+     */
+    public static double getTaxRate(long totalSalaryCents) {
+        return TAX_ENGINE.getTaxRate(totalSalaryCents);
+    }
+
+    /**
+     * Calculates the taxes owed on the total salary, using the configured tax table.
+     *
+     * @param totalSalaryCents the total salary of an employee in cents
+     * @return the taxes amount in cents
+     */
+    public static long getTaxCents(long totalSalaryCents) {
+        return TAX_ENGINE.getTaxCents(totalSalaryCents);
+    }
+
+    /**
+     * Calculates the deductions based on the total salary.
+     * The deductions are the sum of the configured deductions, by default 2% of the total salary.
+     *
+     * @param totalSalaryCents the total salary in cents
+     * @return the deductions amount in cents
+     */
+    public static long getDeductionCents(long totalSalaryCents) {
+        return TAX_ENGINE.getDeductionCents(totalSalaryCents);
+    }
+
+    /**
+     * Collects the records of the employees into an array so the pay run can be split by index.
+     */
+    private static EmployeeRecord[] toRecords(Iterable<Employee> employees) {
+        List<EmployeeRecord> records = employees instanceof Collection
+                ? new ArrayList<>(((Collection<Employee>) employees).size())
+                : new ArrayList<>();
+        for (Employee employee : employees) {
+            records.add(employee.getRecord());
+        }
+        return records.toArray(new EmployeeRecord[0]);
+    }
+
+    /**
+     * Calculates a range of the roster, splitting it in half until it is small enough to compute sequentially.
+     * Returns the subtotals of the range in cents as {salary, taxes, deductions, bonuses}.
+     */
+    private static class PayRunTask extends RecursiveTask<long[]> {
+        private final PayrollColumns columns;
+        private final long[] totalSalary;
+        private final double[] taxRate;
+        private final long[] taxes;
+        private final long[] deductions;
+        private final RunMonitor monitor;
+        private final int from;
+        private final int to;
+
+        PayRunTask(PayrollColumns columns, long[] totalSalary, double[] taxRate, long[] taxes,
+                   long[] deductions, RunMonitor monitor, int from, int to) {
+            this.columns = columns;
+            this.totalSalary = totalSalary;
+            this.taxRate = taxRate;
+            this.taxes = taxes;
+            this.deductions = deductions;
+            this.monitor = monitor;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                if (monitor.isCancelled()) {
+                    throw new CancellationException("Pay run cancelled");
+                }
+                long[] totals = KERNEL.compute(columns, from, to, totalSalary, taxes, taxRate, deductions);
+                monitor.completed(to - from);
+                return totals;
+            }
+            int middle = (from + to) >>> 1;
+            PayRunTask left = new PayRunTask(columns, totalSalary, taxRate, taxes, deductions, monitor, from, middle);
+            PayRunTask right = new PayRunTask(columns, totalSalary, taxRate, taxes, deductions, monitor, middle, to);
+            left.fork();
+            long[] totals = right.compute();
+            long[] leftTotals = left.join();
+            for (int i = 0; i < totals.length; i++) {
+                totals[i] = Math.addExact(totals[i], leftTotals[i]);
+            }
+            return totals;
+        }
+    }
+}
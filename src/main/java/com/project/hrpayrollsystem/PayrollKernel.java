@@ -0,0 +1,109 @@
+package com.project.hrpayrollsystem;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Optional;
+
+/**
+ * Computes the pay figures of a range of employees held in {@link PayrollColumns}: the total salary, the tax and the
+ * rate it is taxed at, and the deductions of each employee, together with the totals of the range.
+ * <p>
+ * Two kernels compute the same figures to the cent. The scalar kernel computes one employee after another with the
+ * {@link TaxEngine}. The vector kernel computes as many employees at once as the CPU has lanes for, with the
+ * {@code jdk.incubator.vector} API; it is used when that module is present, which takes
+ * {@code --add-modules jdk.incubator.vector} on the command line, and the tax rules are ones it handles:
+ * rounding half up and a table of up to four brackets. Employees with pay figures too large for it to compute
+ * exactly are computed by the scalar kernel.
+ * <p>
+ * The vector kernel is compiled on its own, from {@code src/main/vector}, as javac warns about the incubator module in
+ * any compilation that uses it and offers no way to turn off just that warning. The rest of the application does not
+ * require the module; it is found, read and linked to at run time.
+ */
+public abstract class PayrollKernel {
+
+    // Set -Dhrpayroll.vector=false to compute pay runs with the scalar kernel even where the vector one is available
+    private static final MethodHandle VECTOR_KERNEL = !"false".equals(System.getProperty("hrpayroll.vector"))
+            ? findVectorKernel() : null;
+
+    PayrollKernel() {
+    }
+
+    /**
+     * Finds the factory of the vector kernel if its module is present and the kernel was built.
+     *
+     * @return a handle to {@code VectorPayrollKernel.create}, or null if the vector kernel cannot be used
+     */
+    private static MethodHandle findVectorKernel() {
+        Optional<Module> vector = ModuleLayer.boot().findModule("jdk.incubator.vector");
+        if (vector.isEmpty()) {
+            return null;
+        }
+        // The module does not require the incubator module, so it has to read it before the kernel links against it
+        PayrollKernel.class.getModule().addReads(vector.get());
+        try {
+            return MethodHandles.lookup().findStatic(Class.forName("com.project.hrpayrollsystem.VectorPayrollKernel"),
+                    "create", MethodType.methodType(PayrollKernel.class, TaxEngine.class));
+        } catch (ReflectiveOperationException e) {
+            // Built without the vector kernel, for example by an IDE that only compiles src/main/java
+            return null;
+        }
+    }
+
+    /**
+     * Returns the fastest kernel for the tax rules.
+     *
+     * @param rules the tax rules to apply
+     * @return the vector kernel if it is available and handles the rules, otherwise the scalar kernel
+     */
+    public static PayrollKernel forRules(TaxEngine rules) {
+        if (VECTOR_KERNEL != null) {
+            PayrollKernel kernel;
+            try {
+                kernel = (PayrollKernel) VECTOR_KERNEL.invokeExact(rules);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                // The factory declares no checked exceptions
+                throw new IllegalStateException(e);
+            }
+            if (kernel != null) {
+                return kernel;
+            }
+        }
+        return scalar(rules);
+    }
+
+    /**
+     * Returns the kernel that computes one employee at a time, which handles any tax rules.
+     *
+     * @param rules the tax rules to apply
+     * @return the scalar kernel
+     */
+    public static PayrollKernel scalar(TaxEngine rules) {
+        return new ScalarPayrollKernel(rules);
+    }
+
+    /**
+     * Returns the name of the kernel, "scalar" or "vector" with its number of lanes, for logs and benchmarks.
+     *
+     * @return the name of the kernel
+     */
+    public abstract String getName();
+
+    /**
+     * Computes the pay figures of a range of employees into the output columns, at the same positions as the input.
+     *
+     * @param columns     the pay figures of the employees
+     * @param from        the position of the first employee, inclusive
+     * @param to          the position after the last employee
+     * @param totalSalary receives the total salary of each employee in cents
+     * @param taxes       receives the tax of each employee in cents
+     * @param taxRate     receives the rate each employee is taxed at as a fraction
+     * @param deductions  receives the deductions of each employee in cents
+     * @return the totals of the range in cents as {salary, taxes, deductions, bonuses}
+     * @throws ArithmeticException if an amount or a total does not fit in a long
+     */
+    public abstract long[] compute(PayrollColumns columns, int from, int to,
+                                   long[] totalSalary, long[] taxes, double[] taxRate, long[] deductions);
+}
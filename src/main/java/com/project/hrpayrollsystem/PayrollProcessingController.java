@@ -1,42 +1,57 @@
 package com.project.hrpayrollsystem;
 
 import javafx.collections.FXCollections;
+import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.chart.PieChart;
 import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.ListCell;
-import javafx.scene.image.Image;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.control.TextField;
 import javafx.scene.layout.AnchorPane;
 import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 
-import java.io.IOException;
+import java.io.File;
 import java.net.URL;
-import java.util.Objects;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.ResourceBundle;
 
 /**
  * The PayrollProcessingController class is responsible for controlling the payroll processing UI.
  * It initializes the UI components, handles user interactions, and updates the UI based on user input.
- * The controller calculates and displays the total salary, tax, deductions, and bonus for the selected employee.
+ * The controller displays the total salary, tax, deductions, and bonus calculated by the {@link PayrollEngine}
+ * for the selected employee.
  * It also updates the pie chart based on the employee's bonus, if any.
+ * All calculations run as background tasks through {@link PayrollTasks}; only their results are shown on the JavaFX thread.
+ * Pay runs are exported for a pay period: the current period is paid with the roster as it is now, and a period paid
+ * before is paid again with the snapshot it was last paid with.
  */
-public class PayrollProcessingController implements Initializable {
+public class PayrollProcessingController implements Initializable, Navigator.Refreshable {
 
     @FXML
     public Button backButton;
     @FXML
+    public Button exportButton;
+    @FXML
+    public ProgressBar exportProgress;
+    @FXML
+    public ComboBox<YearMonth> payPeriodComboBox;
+    @FXML
     public PieChart moneyDistributionChart;
     @FXML
     public Label chartLabel;
     @FXML
+    private TextField employeeSearchField;
+    @FXML
     private ComboBox<Employee> employeeComboBox;
     @FXML
     private VBox vBox;
@@ -53,6 +68,12 @@ public class PayrollProcessingController implements Initializable {
     @FXML
     private Label bonusesLabel;
 
+    // The calculation whose result the screen is waiting for, replaced whenever the employee or bonus changes
+    private Task<PayResult> calculation;
+    // The running export, or null
+    private Task<Integer> export;
+    private EmployeeSearch search;
+
     /**
      * Initializes the PayrollProcessingController.
      * This method is called when the corresponding FXML file is loaded.
@@ -63,8 +84,15 @@ public class PayrollProcessingController implements Initializable {
      */
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
-        // Initialize the ComboBox with the list of employees
+        // Initialize the ComboBox with the list of employees, narrowed down to the matches of the search field as the user types
         employeeComboBox.setItems(EmployeeManager.getEmployeeList());
+        search = new EmployeeSearch(employeeSearchField, employees -> {
+            employeeComboBox.setItems(employees);
+            if (employeeSearchField.isFocused() && employees != EmployeeManager.getEmployeeList()) {
+                // Open the list of matches to pick from
+                employeeComboBox.show();
+            }
+        });
 
         // Set a custom cell factory to display only the first and last names of the employees
         employeeComboBox.setCellFactory(param -> new ListCell<Employee>() {
@@ -104,11 +132,37 @@ public class PayrollProcessingController implements Initializable {
         AnchorPane.setRightAnchor(vBox, 0.0);
     }
 
+    /**
+     * Starts with no employee selected each time the screen is shown, as when it was first opened.
+     */
+    @Override
+    public void onShow() {
+        search.clear();
+        employeeComboBox.getSelectionModel().clearSelection();
+        bonusComboBox.getSelectionModel().clearSelection();
+        moneyDistributionChart.getData().clear();
+        onEmployeeSelected();
+        showPayPeriods();
+    }
+
+    /**
+     * Lists the current pay period and the periods paid before, newest first, with the current one selected.
+     */
+    private void showPayPeriods() {
+        YearMonth current = YearMonth.now();
+        List<YearMonth> periods = new ArrayList<>(EmployeeManager.getPayPeriods());
+        periods.remove(current);
+        periods.add(current);
+        periods.sort(Comparator.reverseOrder());
+        payPeriodComboBox.setItems(FXCollections.observableArrayList(periods));
+        payPeriodComboBox.setValue(current);
+    }
+
     /**
      * Handles the event when an employee is selected in the ComboBox.
      * Toggles the visibility of various UI elements based on whether an employee is selected.
-     * Calculates and displays the total salary, tax, deductions, etc. for the selected employee.
-     * Updates the pie chart based on the employee's bonus, if any.
+     * Starts calculating the total salary, tax, deductions, etc. for the selected employee,
+     * which are displayed together with the pie chart once they are ready.
      * Hides other UI elements when no employee is selected.
      */
     private void onEmployeeSelected() {
@@ -126,33 +180,13 @@ public class PayrollProcessingController implements Initializable {
         chartLabel.setVisible(employeeSelected);
 
         if (employeeSelected) {
-            // Calculate and display salary, tax, deductions, etc.
-            double totalSalary = Double.parseDouble(selectedEmployee.wageProperty().get().substring(1))
-                    * Double.parseDouble(selectedEmployee.hoursProperty().get());
-
-            // If the employee has a bonus already then add it to the total salary
-            if (!selectedEmployee.bonusProperty().get().equals("None")) {
-                double bonus = getBonusAmount(selectedEmployee.bonusProperty().get());
-                totalSalary += bonus;
-            }
-            totalSalaryLabel.setText("Total Salary: $" + String.format("%.2f", totalSalary));
-
-            double taxRate = getTaxRate(totalSalary);
-            double taxes = totalSalary * taxRate;
-            double deductions = getDeductions(totalSalary);
-
-            taxRateLabel.setText("Tax Rate: " + String.format("%.2f%%", taxRate * 100));
-            taxesLabel.setText("Taxes: $" + String.format("%.2f", taxes));
-            deductionsLabel.setText("Deductions: $" + String.format("%.2f", deductions));
+            // Calculate salary, tax, deductions, etc. in the background
             bonusesLabel.setText("Bonus: ");
-            if (selectedEmployee.bonusProperty().get().equals("None")){
-                updatePieChart(totalSalary, taxes, deductions);
-            } else {
-                updatePieChart(totalSalary, taxes, deductions, selectedEmployee.bonusProperty().get());
-            }
+            calculate(selectedEmployee.getRecord());
         }
         // Ensure other UI elements are hidden when no employee is selected
         else {
+            cancelCalculation();
             totalSalaryLabel.setText("");
             taxRateLabel.setText("");
             taxesLabel.setText("");
@@ -161,6 +195,59 @@ public class PayrollProcessingController implements Initializable {
         }
     }
 
+    /**
+     * Shows the pay of an employee, straight from the pay result cache if it holds it and otherwise once it is
+     * calculated in the background, replacing any calculation still running.
+     *
+     * @param record the record of the employee to calculate
+     */
+    private void calculate(EmployeeRecord record) {
+        cancelCalculation();
+        // An employee calculated before with the same pay figures is shown right away
+        PayResult cached = PayrollEngine.getResultCache().getIfPresent(record);
+        if (cached != null) {
+            showResult(cached);
+            return;
+        }
+        Task<PayResult> task = PayrollTasks.calculate(record);
+        task.setOnSucceeded(event -> {
+            // A result that was already on its way when the calculation was replaced is dropped
+            if (calculation == task) {
+                calculation = null;
+                showResult(task.getValue());
+            }
+        });
+        task.setOnFailed(event -> task.getException().printStackTrace());
+        calculation = task;
+    }
+
+    private void cancelCalculation() {
+        if (calculation != null) {
+            calculation.cancel();
+            calculation = null;
+        }
+    }
+
+    /**
+     * Displays the salary, tax, deductions and pie chart of a calculated employee.
+     *
+     * @param result the pay result of the employee
+     */
+    private void showResult(PayResult result) {
+        totalSalaryLabel.setText("Total Salary: $" + Money.format(result.getTotalSalaryCents()));
+        taxRateLabel.setText("Tax Rate: " + String.format("%.2f%%", result.getTaxRate() * 100));
+        taxesLabel.setText("Taxes: $" + Money.format(result.getTaxCents()));
+        deductionsLabel.setText("Deductions: $" + Money.format(result.getDeductionCents()));
+        double totalSalary = Money.toDollars(result.getTotalSalaryCents());
+        double taxes = Money.toDollars(result.getTaxCents());
+        double deductions = Money.toDollars(result.getDeductionCents());
+        if (result.getBonusCents() == 0) {
+            updatePieChart(totalSalary, taxes, deductions);
+        } else {
+            updatePieChart(totalSalary, taxes, deductions, Money.toDollars(result.getBonusCents()));
+        }
+    }
+
     /**
      * Updates the pie chart with the given total salary, taxes, and deductions.
      *
@@ -187,16 +274,16 @@ public class PayrollProcessingController implements Initializable {
      * @param totalSalary  the total salary amount
      * @param taxes        the taxes amount
      * @param deductions   the deductions amount
-     * @param bonus        the bonus amount as a string
+     * @param bonus        the bonus amount
      */
-    private void updatePieChart(double totalSalary, double taxes, double deductions, String bonus) {
+    private void updatePieChart(double totalSalary, double taxes, double deductions, double bonus) {
         moneyDistributionChart.getData().clear(); // Clear existing data
 
         // Create PieChart data points
         PieChart.Data salaryData = new PieChart.Data("Salary", totalSalary);
         PieChart.Data taxesData = new PieChart.Data("Taxes", taxes);
         PieChart.Data deductionsData = new PieChart.Data("Deductions", deductions);
-        PieChart.Data bonusData = new PieChart.Data("Bonus", getBonusAmount(bonus));
+        PieChart.Data bonusData = new PieChart.Data("Bonus", bonus);
 
         // Add data points to the PieChart
         moneyDistributionChart.getData().addAll(salaryData, taxesData, deductionsData, bonusData);
@@ -204,7 +291,7 @@ public class PayrollProcessingController implements Initializable {
 
     /**
      * Handles the event when a bonus is selected in the ComboBox.
-     * Updates the employee's bonus, total salary, taxes, deductions, and pie chart accordingly.
+     * Updates the employee's bonus and starts recalculating the total salary, taxes, deductions, and pie chart.
      *
      * @param event The action event triggered by selecting a bonus in the ComboBox.
      */
@@ -215,90 +302,79 @@ public class PayrollProcessingController implements Initializable {
         String selectedBonus = bonusComboBox.getValue();
 
         if (selectedEmployee != null && selectedBonus != null) {
-            // Get the current bonus and remove its impact on the total salary
-            String currentBonus = selectedEmployee.bonusProperty().get();
-            double bonusAmount = getBonusAmount(currentBonus);
-            double totalSalaryBeforeBonus = calculateTotalSalary(selectedEmployee);
-
             // Set the new bonus based on the user's selection
-            selectedEmployee.bonusProperty().set(selectedBonus);
-
-            // Calculate the new total salary after applying the new bonus
-            double totalSalaryAfterBonus = calculateTotalSalary(selectedEmployee);
-
-            // Adjust the total salary on the screen
-            totalSalaryLabel.setText("Total Salary: $" + String.format("%.2f", totalSalaryAfterBonus));
-
-            // Recalculate taxes and deductions based on the new total salary
-            double taxRate = getTaxRate(totalSalaryAfterBonus);
-            double taxes = totalSalaryAfterBonus * taxRate;
-            double deductions = getDeductions(totalSalaryAfterBonus);
-            updatePieChart(totalSalaryAfterBonus, taxes, deductions, selectedBonus);
-            // Display the updated tax and deduction information
-            taxRateLabel.setText("Tax Rate: " + String.format("%.2f%%", taxRate * 100));
-            taxesLabel.setText("Taxes: $" + String.format("%.2f", taxes));
-            deductionsLabel.setText("Deductions: $" + String.format("%.2f", deductions));
-        }
-    }
+            selectedEmployee.setBonus(selectedBonus);
+            EmployeeManager.updateEmployee(selectedEmployee);
 
-    /**
-     * Calculates the total salary for an employee.
-     * The total salary is calculated based on the employee's wage, hours worked, and bonus.
-     *
-     * @param employee the employee for whom the total salary is calculated
-     * @return the total salary for the employee
-     */
-    private double calculateTotalSalary(Employee employee) {
-        // Calculate total salary based on wage, hours worked, and bonus
-        double baseSalary = Double.parseDouble(employee.wageProperty().get().substring(1)) * Double.parseDouble(employee.hoursProperty().get());
-        double bonusAmount = getBonusAmount(employee.bonusProperty().get());
-        return baseSalary + bonusAmount;
+            // Recalculate the total salary, taxes and deductions with the new bonus
+            calculate(selectedEmployee.getRecord());
+        }
     }
 
     /**
-     * Returns the bonus amount based on the given bonus code.
-     *
-     * @param bonus the bonus code
-     * @return the bonus amount
+     * Runs the payroll of all employees and exports it to a file chosen by the user,
+     * as CSV or as a fixed-width bank-transfer file depending on the chosen file type.
+     * Paying the current pay period takes a new snapshot of the roster for it; a past period is paid with its snapshot.
+     * The pay run and the export run as a background task whose progress is shown under the button;
+     * while it runs, the button cancels it instead.
      */
-    private double getBonusAmount(String bonus) {
-        return switch (bonus) {
-            case "$1000" -> 1000.0;
-            case "$5000" -> 5000.0;
-            case "$10000" -> 10000.0;
-            default -> 0.0; // No bonus
+    @FXML
+    private void exportPayRun() {
+        if (export != null) {
+            export.cancel();
+            return;
+        }
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Export Pay Run");
+        FileChooser.ExtensionFilter csvFilter = new FileChooser.ExtensionFilter("CSV Files", "*.csv");
+        FileChooser.ExtensionFilter bankFilter = new FileChooser.ExtensionFilter("Bank Transfer Files", "*.txt");
+        fileChooser.getExtensionFilters().addAll(csvFilter, bankFilter);
+        File file = fileChooser.showSaveDialog(vBox.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+        boolean bankFile = fileChooser.getSelectedExtensionFilter() == bankFilter;
+        PayrollTasks.PayRunHandler<Integer> exporter = run -> {
+            if (bankFile) {
+                PayRunExporter.writeBankFile(run, file.toPath());
+            } else {
+                PayRunExporter.writeCsv(run, file.toPath());
+            }
+            return run.getEmployeeCount();
         };
-    }
-
-    /**
-     * Calculates the tax rate based on the total salary.
-     *
-     * @param totalSalary the total salary of an employee
-     * @return the tax rate applicable to the total salary
-     */
-    private double getTaxRate(double totalSalary) {
-        if (totalSalary <= 50000) {
-            // 10% tax rate for income up to $50,000
-            return 0.10;
-        } else if (totalSalary <= 100000) {
-            // 20% tax rate for income between $50,001 and $100,000
-            return 0.20;
+        YearMonth period = payPeriodComboBox.getValue();
+        Task<Integer> task;
+        if (period == null || !period.isBefore(YearMonth.now())) {
+            // A point-in-time snapshot, so edits made while the pay run is written do not show in it
+            task = PayrollTasks.run(EmployeeManager.snapshotPayPeriod(period != null ? period : YearMonth.now()), exporter);
         } else {
-            // 30% tax rate for income above $100,000
-            return 0.30;
+            task = PayrollTasks.run(period, exporter);
         }
+        task.setOnSucceeded(event -> {
+            finishExport();
+            Utilities.showAlert("Alert", "Exported the pay of " + task.getValue() + " employees to " + file.getName());
+        });
+        task.setOnFailed(event -> {
+            task.getException().printStackTrace();
+            finishExport();
+            Utilities.showAlert("Alert", "Could not export to " + file.getName());
+        });
+        task.setOnCancelled(event -> {
+            finishExport();
+            // Cancelling interrupts the export, which then deletes the file if it had already opened it
+            Utilities.showAlert("Alert", "Export cancelled");
+        });
+        export = task;
+        exportButton.setText("Cancel Export");
+        exportProgress.progressProperty().bind(task.progressProperty());
+        exportProgress.setVisible(true);
     }
 
-    /**
-     * Calculates the deductions based on the total salary.
-     * The deductions are calculated as 2% of the total salary.
-     *
-     * @param totalSalary the total salary
-     * @return the deductions amount
-     */
-    private double getDeductions(double totalSalary) {
-        // 2% deductions of the total salary
-        return 0.02 * totalSalary;
+    private void finishExport() {
+        export = null;
+        exportButton.setText("Export Pay Run");
+        exportProgress.progressProperty().unbind();
+        exportProgress.setVisible(false);
     }
 
     /**
@@ -306,23 +382,8 @@ public class PayrollProcessingController implements Initializable {
      */
     @FXML
     private void goBack() {
-        try {
-            // Load the main menu FXML
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/com/project/hrpayrollsystem/fxml/mainMenu.fxml"));
-            Parent root = loader.load();
-            // Create a new scene with the main menu
-            Scene scene = new Scene(root);
-            // Get the current stage from any control in the scene
-            Stage stage = (Stage) vBox.getScene().getWindow();  // Assuming vBox is a part of the current scene
-
-            Image newIcon = new Image(Objects.requireNonNull(getClass().getResourceAsStream("/com/project/hrpayrollsystem/images/home.png")));
-            stage.getIcons().clear();
-            stage.getIcons().add(newIcon);
-            stage.setTitle("HR Manager and Payroll System - Main Menu");
-            // Set the new scene on the stage
-            stage.setScene(scene);
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        // Get the current stage from any control in the scene
+        Stage stage = (Stage) vBox.getScene().getWindow();
+        Navigator.show(stage, Navigator.Screen.MAIN_MENU);
     }
 }
\ No newline at end of file
@@ -0,0 +1,148 @@
+package com.project.hrpayrollsystem;
+
+import javafx.concurrent.Task;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs payroll calculations as background {@link Task}s, so the JavaFX application thread never waits for them.
+ * <p>
+ * Tasks run on a dedicated executor of daemon threads, with pay runs split across the common fork-join pool.
+ * A task publishes its result to the JavaFX thread only once it has finished, through its {@code onSucceeded} handler,
+ * and a pay run reports its progress as ranges of employees are computed. Cancelling a task that has not finished
+ * means its handlers never run, so a screen can start a new calculation whenever its input changes
+ * and cancel the previous one.
+ */
+public class PayrollTasks {
+
+    // A pay run can take a while, so a second thread keeps single calculations from queueing behind it
+    private static final int THREADS = 2;
+
+    private static final AtomicInteger threadCount = new AtomicInteger();
+    private static final ExecutorService executor = Executors.newFixedThreadPool(THREADS, runnable -> {
+        Thread thread = new Thread(runnable, "payroll-task-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Does something with a finished pay run on the background thread, such as exporting it.
+     *
+     * @param <T> the type of the outcome
+     */
+    public interface PayRunHandler<T> {
+        T handle(PayRun run) throws Exception;
+    }
+
+    private PayrollTasks() {
+    }
+
+    /**
+     * Starts calculating the pay figures of a single employee.
+     *
+     * @param record the record of the employee, taken on the JavaFX thread
+     * @return the running task
+     */
+    public static Task<PayResult> calculate(EmployeeRecord record) {
+        Task<PayResult> task = new Task<>() {
+            @Override
+            protected PayResult call() {
+                return PayrollEngine.calculate(record);
+            }
+        };
+        executor.execute(task);
+        return task;
+    }
+
+    /**
+     * Starts running the payroll of the given records and then hands the pay run to the handler.
+     * The progress of the task goes up to the number of records as they are computed.
+     *
+     * @param records the employee records to pay, such as a copy from {@link EmployeeManager#getEmployeeRecords()};
+     *                the list is read on the background thread
+     * @param handler does something with the pay run once it is computed
+     * @param <T>     the type of the outcome
+     * @return the running task
+     */
+    public static <T> Task<T> run(List<EmployeeRecord> records, PayRunHandler<T> handler) {
+        return start(() -> records, handler);
+    }
+
+    /**
+     * Starts running the payroll of a pay period against its snapshot and then hands the pay run to the handler,
+     * so running a past period again gives the same figures as before.
+     *
+     * @param snapshot the snapshot of the pay period, from {@link EmployeeManager#snapshotPayPeriod}
+     *                 or {@link EmployeeManager#getPayPeriodSnapshot}
+     * @param handler  does something with the pay run once it is computed
+     * @param <T>      the type of the outcome
+     * @return the running task
+     */
+    public static <T> Task<T> run(PayPeriodSnapshot snapshot, PayRunHandler<T> handler) {
+        return start(snapshot::getRecords, handler);
+    }
+
+    /**
+     * Starts running the payroll of a pay period that was paid before, against the snapshot it was paid with,
+     * which is read from its file on the background thread if it is not in memory.
+     *
+     * @param period  the pay period, one of {@link EmployeeManager#getPayPeriods()}
+     * @param handler does something with the pay run once it is computed
+     * @param <T>     the type of the outcome
+     * @return the running task, which fails if the period has not been paid
+     */
+    public static <T> Task<T> run(YearMonth period, PayRunHandler<T> handler) {
+        return start(() -> {
+            PayPeriodSnapshot snapshot = EmployeeManager.getPayPeriodSnapshot(period);
+            if (snapshot == null) {
+                throw new IllegalStateException("Pay period " + period + " has not been paid");
+            }
+            return snapshot.getRecords();
+        }, handler);
+    }
+
+    private static <T> Task<T> start(Callable<List<EmployeeRecord>> records, PayRunHandler<T> handler) {
+        Task<T> task = new PayRunTask<>(records, handler);
+        executor.execute(task);
+        return task;
+    }
+
+    /**
+     * A pay run that follows itself: it is cancelled when the task is, and each computed range moves its progress on.
+     */
+    private static final class PayRunTask<T> extends Task<T> implements PayrollEngine.RunMonitor {
+        private final Callable<List<EmployeeRecord>> records;
+        private final PayRunHandler<T> handler;
+        private final AtomicLong computed = new AtomicLong();
+        private volatile int employees;
+
+        PayRunTask(Callable<List<EmployeeRecord>> records, PayRunHandler<T> handler) {
+            this.records = records;
+            this.handler = handler;
+        }
+
+        @Override
+        protected T call() throws Exception {
+            EmployeeRecord[] paid = records.call().toArray(new EmployeeRecord[0]);
+            employees = paid.length;
+            updateProgress(0, employees);
+            PayRun run = PayrollEngine.run(paid, ForkJoinPool.commonPool(), this);
+            return handler.handle(run);
+        }
+
+        /**
+         * Called from the pool threads; the progress updates are combined into one update of the JavaFX thread at a time.
+         */
+        @Override
+        public void completed(int employees) {
+            updateProgress(computed.addAndGet(employees), this.employees);
+        }
+    }
+}
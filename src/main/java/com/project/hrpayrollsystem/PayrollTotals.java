@@ -0,0 +1,187 @@
+package com.project.hrpayrollsystem;
+
+import java.io.Serializable;
+
+/**
+ * Running payroll totals of a group of employees, such as a department or the whole company, in cents and
+ * hundredths of an hour.
+ * <p>
+ * The totals are never recalculated from the employees. Each employee's contribution is added when they join the
+ * group and subtracted when they leave, and a change to an employee subtracts the contribution of their previous
+ * record and adds that of the new one. Taxes and deductions are calculated per employee, on their own salary, so the
+ * difference between the two contributions also covers an employee moving to another tax bracket, and updating the
+ * totals costs the same whatever the size of the group.
+ * <p>
+ * Safe to use from several threads; the figures are adjusted and read under the lock of the totals.
+ */
+public class PayrollTotals implements Serializable {
+    private int headcount;
+    private long totalHoursHundredths;
+    private long totalSalaryCents;
+    private long totalTaxCents;
+    private long totalDeductionCents;
+    private long totalBonusCents;
+
+    public synchronized int getHeadcount() { return headcount; }
+    public synchronized long getTotalHoursHundredths() { return totalHoursHundredths; }
+    public synchronized long getTotalSalaryCents() { return totalSalaryCents; }
+    public synchronized long getTotalTaxCents() { return totalTaxCents; }
+    public synchronized long getTotalDeductionCents() { return totalDeductionCents; }
+    public synchronized long getTotalBonusCents() { return totalBonusCents; }
+
+    /**
+     * Returns the amount paid out to the employees after taxes and deductions.
+     *
+     * @return the total net pay in cents
+     */
+    public synchronized long getTotalNetPayCents() {
+        return Money.subtract(Money.subtract(totalSalaryCents, totalTaxCents), totalDeductionCents);
+    }
+
+    /**
+     * The figures one employee adds to the totals, calculated from their pay figures once. Calculating them is the
+     * part that can fail, on amounts too large for a long, so a change calculates them before it changes anything.
+     */
+    public static final class Contribution {
+        private final long hoursHundredths;
+        private final long salaryCents;
+        private final long taxCents;
+        private final long deductionCents;
+        private final long bonusCents;
+
+        private Contribution(long hoursHundredths, long salaryCents, long taxCents, long deductionCents, long bonusCents) {
+            this.hoursHundredths = hoursHundredths;
+            this.salaryCents = salaryCents;
+            this.taxCents = taxCents;
+            this.deductionCents = deductionCents;
+            this.bonusCents = bonusCents;
+        }
+
+        /**
+         * Calculates the contribution of an employee from their pay figures.
+         *
+         * @param wageCents       the hourly wage in cents
+         * @param hoursHundredths the hours worked in hundredths of an hour
+         * @param bonusCents      the bonus in cents
+         * @return the contribution of the employee
+         * @throws ArithmeticException if the salary does not fit in a long
+         */
+        public static Contribution of(long wageCents, long hoursHundredths, long bonusCents) {
+            long salaryCents = PayrollEngine.calculateTotalSalaryCents(wageCents, hoursHundredths, bonusCents);
+            return new Contribution(hoursHundredths, salaryCents, PayrollEngine.getTaxCents(salaryCents),
+                    PayrollEngine.getDeductionCents(salaryCents), bonusCents);
+        }
+
+        /**
+         * Calculates the contribution of an employee from their record.
+         *
+         * @param record the employee record
+         * @return the contribution of the employee
+         * @throws ArithmeticException if the salary does not fit in a long
+         */
+        public static Contribution of(EmployeeRecord record) {
+            return of(record.getWageCents(), record.getHoursHundredths(), record.getBonusCents());
+        }
+    }
+
+    /**
+     * Adds the contribution of an employee joining the group.
+     *
+     * @param wageCents       the hourly wage in cents
+     * @param hoursHundredths the hours worked in hundredths of an hour
+     * @param bonusCents      the bonus in cents
+     * @throws ArithmeticException if a total does not fit in a long, in which case no total changed
+     */
+    public void add(long wageCents, long hoursHundredths, long bonusCents) {
+        replace(null, Contribution.of(wageCents, hoursHundredths, bonusCents));
+    }
+
+    /**
+     * Subtracts the contribution of an employee leaving the group. The figures must be the ones the employee was
+     * added with, so exactly what was added is taken off again.
+     *
+     * @param wageCents       the hourly wage in cents
+     * @param hoursHundredths the hours worked in hundredths of an hour
+     * @param bonusCents      the bonus in cents
+     * @throws ArithmeticException if a total does not fit in a long, in which case no total changed
+     */
+    public void subtract(long wageCents, long hoursHundredths, long bonusCents) {
+        replace(Contribution.of(wageCents, hoursHundredths, bonusCents), null);
+    }
+
+    /**
+     * Replaces the contribution of an employee's previous record by that of their current one, as a single change.
+     *
+     * @param previous the record the employee was counted with, or null if they were not counted yet
+     * @param current  the new record of the employee, or null if they leave the group
+     * @throws ArithmeticException if a total does not fit in a long, in which case no total changed
+     */
+    public void replace(EmployeeRecord previous, EmployeeRecord current) {
+        if (previous != null && current != null
+                && previous.getWageCents() == current.getWageCents()
+                && previous.getHoursHundredths() == current.getHoursHundredths()
+                && previous.getBonusCode() == current.getBonusCode()) {
+            // Nothing the totals count has changed
+            return;
+        }
+        replace(previous != null ? Contribution.of(previous) : null, current != null ? Contribution.of(current) : null);
+    }
+
+    /**
+     * Replaces one contribution by another as a single change: either every total changes or, if one of them would
+     * not fit in a long, none does.
+     *
+     * @param previous the contribution to subtract, or null if the employee joins the group
+     * @param current  the contribution to add, or null if the employee leaves the group
+     * @throws ArithmeticException if a total does not fit in a long, in which case no total changed
+     */
+    public synchronized void replace(Contribution previous, Contribution current) {
+        if (previous == current) {
+            return;
+        }
+        int headcount = this.headcount;
+        long hours = totalHoursHundredths;
+        long salary = totalSalaryCents;
+        long tax = totalTaxCents;
+        long deduction = totalDeductionCents;
+        long bonus = totalBonusCents;
+        if (previous != null) {
+            headcount = Math.subtractExact(headcount, 1);
+            hours = Math.subtractExact(hours, previous.hoursHundredths);
+            salary = Money.subtract(salary, previous.salaryCents);
+            tax = Money.subtract(tax, previous.taxCents);
+            deduction = Money.subtract(deduction, previous.deductionCents);
+            bonus = Money.subtract(bonus, previous.bonusCents);
+        }
+        if (current != null) {
+            headcount = Math.addExact(headcount, 1);
+            hours = Math.addExact(hours, current.hoursHundredths);
+            salary = Money.add(salary, current.salaryCents);
+            tax = Money.add(tax, current.taxCents);
+            deduction = Money.add(deduction, current.deductionCents);
+            bonus = Money.add(bonus, current.bonusCents);
+        }
+        this.headcount = headcount;
+        totalHoursHundredths = hours;
+        totalSalaryCents = salary;
+        totalTaxCents = tax;
+        totalDeductionCents = deduction;
+        totalBonusCents = bonus;
+    }
+
+    /**
+     * Copies the totals, so several figures can be read as they were at one moment.
+     *
+     * @return a copy of the totals
+     */
+    public synchronized PayrollTotals copy() {
+        PayrollTotals copy = new PayrollTotals();
+        copy.headcount = headcount;
+        copy.totalHoursHundredths = totalHoursHundredths;
+        copy.totalSalaryCents = totalSalaryCents;
+        copy.totalTaxCents = totalTaxCents;
+        copy.totalDeductionCents = totalDeductionCents;
+        copy.totalBonusCents = totalBonusCents;
+        return copy;
+    }
+}
@@ -0,0 +1,43 @@
+package com.project.hrpayrollsystem;
+
+/**
+ * Computes the pay figures of one employee after another with the {@link TaxEngine}, for any tax rules.
+ */
+final class ScalarPayrollKernel extends PayrollKernel {
+
+    private final TaxEngine rules;
+
+    ScalarPayrollKernel(TaxEngine rules) {
+        this.rules = rules;
+    }
+
+    @Override
+    public String getName() {
+        return "scalar";
+    }
+
+    @Override
+    public long[] compute(PayrollColumns columns, int from, int to,
+                          long[] totalSalary, long[] taxes, double[] taxRate, long[] deductions) {
+        TaxEngine engine = rules;
+        long[] wageCents = columns.wageCents;
+        long[] hoursHundredths = columns.hoursHundredths;
+        long[] bonusCents = columns.bonusCents;
+        long salarySum = 0, taxSum = 0, deductionSum = 0, bonusSum = 0;
+        for (int i = from; i < to; i++) {
+            long baseSalary = Money.multiply(wageCents[i], hoursHundredths[i], engine.getRounding());
+            long salary = Money.add(baseSalary, bonusCents[i]);
+            long tax = engine.getTaxCents(salary);
+            long deduction = engine.getDeductionCents(salary);
+            totalSalary[i] = salary;
+            taxes[i] = tax;
+            taxRate[i] = engine.getTaxRate(salary, tax);
+            deductions[i] = deduction;
+            salarySum = Math.addExact(salarySum, salary);
+            taxSum = Math.addExact(taxSum, tax);
+            deductionSum = Math.addExact(deductionSum, deduction);
+            bonusSum = Math.addExact(bonusSum, bonusCents[i]);
+        }
+        return new long[]{salarySum, taxSum, deductionSum, bonusSum};
+    }
+}
@@ -0,0 +1,279 @@
+package com.project.hrpayrollsystem;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * The tax rules of the payroll: the tax table salaries are taxed by and the deductions taken from them.
+ * <p>
+ * The rules are read from a properties file when the payroll first needs them, and compiled into a {@link TaxTable}
+ * and flat arrays of deduction figures, so calculating the pay of an employee reads arrays rather than configuration.
+ * The file names the table in use and the deductions taken:
+ * <pre>
+ * table=standard
+ * rounding=half_up
+ * table.standard.type=flat
+ * table.standard.brackets=0:10, 50000:20, 100000:30
+ *
+ * deductions=benefits, pension, union
+ * deduction.benefits.percent=2
+ * deduction.pension.percent=5
+ * deduction.pension.cap=3000
+ * deduction.union.fixed=250
+ * </pre>
+ * Each bracket is a lower bound in dollars and a rate in percent; the type is {@code flat} or {@code marginal}.
+ * A deduction takes a percentage of the salary, optionally capped at an amount, plus a fixed amount.
+ * Taxes and deductions are calculated in cents and rounded to the cent by the {@link RoundingMode} named by
+ * {@code rounding}, half up unless the file says otherwise.
+ */
+public final class TaxEngine {
+
+    private static final String CONFIG_FILE_PATH = "./src/main/resources/com/project/hrpayrollsystem/data/TaxTables.properties";
+    // Set -Dhrpayroll.taxTables=<file> to read the tax rules from another file
+    private static final String CONFIG_PROPERTY = "hrpayroll.taxTables";
+
+    private final TaxTable table;
+    private final RoundingMode rounding;
+    // The percentages of the deductions without a cap add up to one rate, and all fixed amounts to one amount
+    private final long uncappedRate;
+    private final long fixedCents;
+    // One entry per deduction with a cap
+    private final long[] cappedRates;
+    private final long[] capCents;
+
+    /**
+     * Creates tax rules from a compiled table and the figures of each deduction.
+     *
+     * @param table           the table salaries are taxed by
+     * @param rounding        how taxes and deductions between two cents are rounded
+     * @param deductionRates  the share of the salary each deduction takes, in parts per million
+     * @param deductionCaps   the most each percentage deduction takes in cents, or {@link Long#MAX_VALUE}
+     * @param deductionAmounts the fixed amount in cents each deduction takes on top of its percentage
+     */
+    public TaxEngine(TaxTable table, RoundingMode rounding, long[] deductionRates, long[] deductionCaps, long[] deductionAmounts) {
+        if (deductionRates.length != deductionCaps.length || deductionRates.length != deductionAmounts.length) {
+            throw new IllegalArgumentException("Each deduction needs a rate, a cap and an amount");
+        }
+        this.table = table;
+        this.rounding = rounding;
+        int capped = 0;
+        long rate = 0;
+        long amount = 0;
+        for (int i = 0; i < deductionRates.length; i++) {
+            if (deductionCaps[i] == Long.MAX_VALUE) {
+                rate = Math.addExact(rate, deductionRates[i]);
+            } else {
+                capped++;
+            }
+            amount = Math.addExact(amount, deductionAmounts[i]);
+        }
+        this.uncappedRate = rate;
+        this.fixedCents = amount;
+        this.cappedRates = new long[capped];
+        this.capCents = new long[capped];
+        for (int i = 0, c = 0; i < deductionRates.length; i++) {
+            if (deductionCaps[i] != Long.MAX_VALUE) {
+                cappedRates[c] = deductionRates[i];
+                capCents[c++] = deductionCaps[i];
+            }
+        }
+    }
+
+    /**
+     * Returns the rules the payroll has always used: 10% up to $50,000, 20% up to $100,000 and 30% above,
+     * applied to the whole salary, and a 2% deduction, rounded half up.
+     *
+     * @return the default tax rules
+     */
+    public static TaxEngine defaults() {
+        TaxTable table = new TaxTable("standard", TaxTable.Type.FLAT,
+                new long[]{0, 5_000_000, 10_000_000}, new long[]{100_000, 200_000, 300_000});
+        return new TaxEngine(table, RoundingMode.HALF_UP, new long[]{20_000}, new long[]{Long.MAX_VALUE}, new long[]{0});
+    }
+
+    /**
+     * Loads the tax rules from the configured file, falling back to the defaults if the file is missing or invalid.
+     *
+     * @return the tax rules to use
+     */
+    public static TaxEngine load() {
+        Path path = Path.of(System.getProperty(CONFIG_PROPERTY, CONFIG_FILE_PATH));
+        try {
+            return load(path);
+        } catch (NoSuchFileException e) {
+            // No tax rules configured
+            return defaults();
+        } catch (IOException | IllegalArgumentException e) {
+            e.printStackTrace();
+            return defaults();
+        }
+    }
+
+    /**
+     * Loads the tax rules from a properties file.
+     *
+     * @param path the file to read
+     * @return the compiled tax rules
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if the file does not describe valid rules
+     */
+    public static TaxEngine load(Path path) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path)) {
+            properties.load(reader);
+        }
+        return parse(properties);
+    }
+
+    /**
+     * Compiles tax rules from their properties.
+     *
+     * @param properties the rules, in the format of the tax tables file
+     * @return the compiled tax rules
+     * @throws IllegalArgumentException if the properties do not describe valid rules
+     */
+    public static TaxEngine parse(Properties properties) {
+        String name = required(properties, "table");
+        String type = required(properties, "table." + name + ".type");
+        String[] brackets = split(required(properties, "table." + name + ".brackets"));
+        long[] lowerBounds = new long[brackets.length];
+        long[] rates = new long[brackets.length];
+        for (int i = 0; i < brackets.length; i++) {
+            String[] bracket = brackets[i].split(":");
+            if (bracket.length != 2) {
+                throw new IllegalArgumentException("Tax bracket '" + brackets[i] + "' is not a lower bound and a rate");
+            }
+            lowerBounds[i] = cents(bracket[0], "table." + name + ".brackets");
+            rates[i] = percent(bracket[1], "table." + name + ".brackets");
+        }
+        TaxTable.Type tableType = switch (type.toLowerCase(Locale.ROOT)) {
+            case "flat" -> TaxTable.Type.FLAT;
+            case "marginal" -> TaxTable.Type.MARGINAL;
+            default -> throw new IllegalArgumentException("Tax table type '" + type + "' is not flat or marginal");
+        };
+        TaxTable table = new TaxTable(name, tableType, lowerBounds, rates);
+
+        String roundingName = properties.getProperty("rounding", "half_up").trim();
+        RoundingMode rounding;
+        try {
+            rounding = RoundingMode.valueOf(roundingName.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Rounding '" + roundingName + "' is not a rounding mode", e);
+        }
+        if (rounding == RoundingMode.UNNECESSARY) {
+            throw new IllegalArgumentException("Taxes and deductions must be rounded to the cent");
+        }
+
+        String[] deductions = split(properties.getProperty("deductions", ""));
+        long[] deductionRates = new long[deductions.length];
+        long[] deductionCaps = new long[deductions.length];
+        long[] deductionAmounts = new long[deductions.length];
+        for (int i = 0; i < deductions.length; i++) {
+            String prefix = "deduction." + deductions[i] + ".";
+            deductionRates[i] = percent(properties.getProperty(prefix + "percent", "0"), prefix + "percent");
+            deductionCaps[i] = properties.getProperty(prefix + "cap") == null
+                    ? Long.MAX_VALUE
+                    : cents(properties.getProperty(prefix + "cap"), prefix + "cap");
+            deductionAmounts[i] = cents(properties.getProperty(prefix + "fixed", "0"), prefix + "fixed");
+            if (deductionRates[i] < 0 || deductionCaps[i] < 0 || deductionAmounts[i] < 0) {
+                throw new IllegalArgumentException("Deduction " + deductions[i] + " cannot be negative");
+            }
+        }
+        return new TaxEngine(table, rounding, deductionRates, deductionCaps, deductionAmounts);
+    }
+
+    public TaxTable getTable() { return table; }
+    public RoundingMode getRounding() { return rounding; }
+
+    // The compiled deductions, for kernels that apply them to many salaries at once
+    long getUncappedRate() { return uncappedRate; }
+    long getFixedCents() { return fixedCents; }
+    long[] getCappedRates() { return cappedRates; }
+    long[] getCapCents() { return capCents; }
+
+    /**
+     * Calculates the tax owed on a total salary.
+     *
+     * @param totalSalaryCents the total salary of an employee in cents
+     * @return the tax owed in cents
+     */
+    public long getTaxCents(long totalSalaryCents) {
+        return table.taxOn(totalSalaryCents, rounding);
+    }
+
+    /**
+     * Calculates the rate a total salary is taxed at as a whole.
+     *
+     * @param totalSalaryCents the total salary of an employee in cents
+     * @return the tax rate as a fraction
+     */
+    public double getTaxRate(long totalSalaryCents) {
+        return table.rateOn(totalSalaryCents, getTaxCents(totalSalaryCents));
+    }
+
+    /**
+     * Calculates the rate a total salary is taxed at as a whole, given the tax owed on it.
+     *
+     * @param totalSalaryCents the total salary of an employee in cents
+     * @param taxCents         the tax owed on the total salary, from {@link #getTaxCents(long)}
+     * @return the tax rate as a fraction
+     */
+    public double getTaxRate(long totalSalaryCents, long taxCents) {
+        return table.rateOn(totalSalaryCents, taxCents);
+    }
+
+    /**
+     * Calculates the sum of the deductions taken from a total salary.
+     * The percentages of the deductions without a cap are added up and applied, and rounded, once.
+     *
+     * @param totalSalaryCents the total salary of an employee in cents
+     * @return the deductions amount in cents
+     */
+    public long getDeductionCents(long totalSalaryCents) {
+        long deductions = Money.add(Money.applyRate(totalSalaryCents, uncappedRate, rounding), fixedCents);
+        for (int i = 0; i < cappedRates.length; i++) {
+            deductions = Money.add(deductions, Math.min(Money.applyRate(totalSalaryCents, cappedRates[i], rounding), capCents[i]));
+        }
+        return deductions;
+    }
+
+    private static String required(Properties properties, String key) {
+        String value = properties.getProperty(key);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Tax rules are missing '" + key + "'");
+        }
+        return value.trim();
+    }
+
+    private static String[] split(String list) {
+        return list.isBlank() ? new String[0] : list.trim().split("\\s*,\\s*");
+    }
+
+    /**
+     * Parses an amount in dollars into cents.
+     */
+    private static long cents(String text, String key) {
+        try {
+            return FixedPoint.parseHundredths(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("'" + text.trim() + "' in '" + key + "' is not a number", e);
+        }
+    }
+
+    /**
+     * Parses a percentage into parts per million.
+     */
+    private static long percent(String text, String key) {
+        try {
+            return Money.ratePpm(Double.parseDouble(text.trim()) / 100);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("'" + text.trim() + "' in '" + key + "' is not a number", e);
+        }
+    }
+}
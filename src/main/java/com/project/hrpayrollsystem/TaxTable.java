@@ -0,0 +1,180 @@
+package com.project.hrpayrollsystem;
+
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+/**
+ * A tax table compiled for fast lookups.
+ * <p>
+ * A table is a list of brackets, each with a lower bound and a rate; the rate of a bracket applies to salaries, or parts
+ * of salaries, above its lower bound. A flat table taxes the whole salary at the rate of the bracket the salary
+ * falls in. A marginal table taxes each part of the salary at the rate of the bracket that part falls in.
+ * Within a bracket of a marginal table the tax is a straight line, {@code intercept + salary * rate}, where the
+ * intercept accounts for the brackets below, so the tax is found without adding up the brackets on every lookup.
+ * Amounts are in cents and rates in parts per million, as in {@link Money}, so the tax is computed exactly
+ * and rounded to the cent once.
+ * <p>
+ * The lower bounds, rates and intercepts are kept in primitive arrays padded to a power of two, the bounds with
+ * {@link Long#MAX_VALUE}, so finding the bracket of a salary is a binary search of a fixed number of steps, each
+ * a comparison the JIT can compile to a conditional move rather than a branch that salaries falling in brackets at
+ * random would mispredict. Tables of up to {@value #SHORT_TABLE} brackets, such as the standard one, compare the salary
+ * with every bound at fixed positions instead and pick the rate by those comparisons, which costs no more than an if-chain.
+ */
+public final class TaxTable {
+
+    // Brackets up to which the salary is compared with every bound instead of searched for
+    private static final int SHORT_TABLE = 4;
+
+    /**
+     * How the rate of a bracket is applied.
+     */
+    public enum Type {
+        FLAT, MARGINAL
+    }
+
+    private final String name;
+    private final Type type;
+    private final int bracketCount;
+    // Lower bounds in cents padded with Long.MAX_VALUE to a power of two, and at least to the length of a short table
+    private final long[] lowerBounds;
+    private final long[] rates;
+    // Tax in millionths of a cent owed at a salary of zero if the rate of each bracket applied from zero,
+    // for a marginal table
+    private final long[] intercepts;
+    private final int firstStep;
+
+    /**
+     * Compiles a tax table.
+     *
+     * @param name        the name of the table, used in error messages
+     * @param type        how the rates are applied
+     * @param lowerBounds the lower bound of each bracket in cents, ascending and starting at 0
+     * @param rates       the rate of each bracket in parts per million, e.g. 200000 for 20%
+     * @throws IllegalArgumentException if the brackets are empty, out of order or have a rate outside 0% to 100%
+     */
+    public TaxTable(String name, Type type, long[] lowerBounds, long[] rates) {
+        if (lowerBounds.length == 0 || lowerBounds.length != rates.length) {
+            throw new IllegalArgumentException("Tax table " + name + " needs one rate for each bracket");
+        }
+        if (lowerBounds[0] != 0) {
+            throw new IllegalArgumentException("The first bracket of tax table " + name + " must start at 0");
+        }
+        for (int i = 0; i < rates.length; i++) {
+            if (i > 0 && lowerBounds[i] <= lowerBounds[i - 1]) {
+                throw new IllegalArgumentException("The brackets of tax table " + name + " must be in ascending order");
+            }
+            if (rates[i] < 0 || rates[i] > Money.RATE_SCALE) {
+                throw new IllegalArgumentException("The rates of tax table " + name + " must be between 0% and 100%");
+            }
+        }
+        this.name = name;
+        this.type = type;
+        this.bracketCount = lowerBounds.length;
+        int paddedLength = Math.max(SHORT_TABLE, Integer.highestOneBit(bracketCount) == bracketCount
+                ? bracketCount : Integer.highestOneBit(bracketCount) << 1);
+        this.lowerBounds = Arrays.copyOf(lowerBounds, paddedLength);
+        Arrays.fill(this.lowerBounds, bracketCount, paddedLength, Long.MAX_VALUE);
+        this.rates = Arrays.copyOf(rates, paddedLength);
+        this.intercepts = new long[paddedLength];
+        if (type == Type.MARGINAL) {
+            long taxBelow = 0;
+            for (int i = 0; i < bracketCount; i++) {
+                if (i > 0) {
+                    taxBelow = Math.addExact(taxBelow, Math.multiplyExact(lowerBounds[i] - lowerBounds[i - 1], rates[i - 1]));
+                }
+                intercepts[i] = Math.subtractExact(taxBelow, Math.multiplyExact(lowerBounds[i], rates[i]));
+            }
+        }
+        this.firstStep = paddedLength >> 1;
+    }
+
+    public String getName() { return name; }
+    public Type getType() { return type; }
+    public int getBracketCount() { return bracketCount; }
+
+    /**
+     * Returns whether the table is short enough for the salary to be compared with every bound,
+     * in which case {@link #lowerBound}, {@link #rate} and {@link #intercept} cover positions 0 to 3,
+     * the positions after the last bracket having a lower bound of {@link Long#MAX_VALUE}.
+     */
+    boolean isShort() {
+        return bracketCount <= SHORT_TABLE;
+    }
+
+    long lowerBound(int bracket) { return lowerBounds[bracket]; }
+    long rate(int bracket) { return rates[bracket]; }
+    long intercept(int bracket) { return intercepts[bracket]; }
+
+    /**
+     * Finds the bracket a salary falls in: the last bracket whose lower bound is below the salary.
+     *
+     * @param salaryCents the total salary in cents
+     * @return the position of the bracket
+     */
+    public int bracketOf(long salaryCents) {
+        long[] bounds = lowerBounds;
+        int bracket = 0;
+        for (int step = firstStep; step > 0; step >>= 1) {
+            bracket += bounds[bracket + step] < salaryCents ? step : 0;
+        }
+        return bracket;
+    }
+
+    /**
+     * Calculates the tax owed on a salary.
+     *
+     * @param salaryCents the total salary in cents
+     * @param rounding    how a tax between two cents is rounded
+     * @return the tax owed in cents
+     * @throws ArithmeticException if the tax overflows
+     */
+    public long taxOn(long salaryCents, RoundingMode rounding) {
+        if (type == Type.FLAT) {
+            return Money.applyRate(salaryCents, bracketRate(salaryCents), rounding);
+        }
+        long intercept;
+        long rate;
+        if (bracketCount <= SHORT_TABLE) {
+            long[] bounds = lowerBounds;
+            boolean above1 = bounds[1] < salaryCents;
+            boolean above2 = bounds[2] < salaryCents;
+            boolean above3 = bounds[3] < salaryCents;
+            long[] c = intercepts;
+            long[] r = rates;
+            intercept = above3 ? c[3] : above2 ? c[2] : above1 ? c[1] : c[0];
+            rate = above3 ? r[3] : above2 ? r[2] : above1 ? r[1] : r[0];
+        } else {
+            int bracket = bracketOf(salaryCents);
+            intercept = intercepts[bracket];
+            rate = rates[bracket];
+        }
+        return Money.divide(Math.addExact(intercept, Math.multiplyExact(salaryCents, rate)), Money.RATE_SCALE, rounding);
+    }
+
+    /**
+     * Returns the rate a salary is taxed at as a whole, given the tax owed on it: the bracket rate for a flat table,
+     * and the tax owed divided by the salary for a marginal table.
+     *
+     * @param salaryCents the total salary in cents
+     * @param taxCents    the tax owed on the salary, from {@link #taxOn(long, RoundingMode)}
+     * @return the tax rate as a fraction
+     */
+    public double rateOn(long salaryCents, long taxCents) {
+        if (type == Type.MARGINAL) {
+            return salaryCents > 0 ? taxCents / (double) salaryCents : rates[0] / (double) Money.RATE_SCALE;
+        }
+        return bracketRate(salaryCents) / (double) Money.RATE_SCALE;
+    }
+
+    /**
+     * Returns the rate in parts per million of the bracket a salary falls in.
+     */
+    private long bracketRate(long salaryCents) {
+        if (bracketCount <= SHORT_TABLE) {
+            long[] bounds = lowerBounds;
+            long[] r = rates;
+            return bounds[3] < salaryCents ? r[3] : bounds[2] < salaryCents ? r[2] : bounds[1] < salaryCents ? r[1] : r[0];
+        }
+        return rates[bracketOf(salaryCents)];
+    }
+}
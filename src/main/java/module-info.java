@@ -1,8 +1,10 @@
 module com.example.hrpayrollsystem {
     requires javafx.controls;
     requires javafx.fxml;
+    // jdk.incubator.vector is not required here: the vector payroll kernel reads it at run time when the module is
+    // added with --add-modules, so only the separate compilation of that kernel warns about the incubator module
 
 
     opens com.project.hrpayrollsystem to javafx.fxml;
     exports com.project.hrpayrollsystem;
-}
\ No newline at end of file
+}
@@ -0,0 +1,324 @@
+package com.project.hrpayrollsystem;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Computes the pay figures of as many employees at once as the CPU has 64-bit lanes for, with the Vector API.
+ * <p>
+ * The figures are the same to the cent as those of the scalar kernel. Amounts stay whole cents in long lanes;
+ * the only division, rounding half up to the cent, has no vector instruction, so the quotient is estimated by
+ * multiplying with the reciprocal of the divisor in double lanes and corrected by one where the remainder shows the
+ * estimate was off. Lanes move between longs and doubles by setting and clearing the exponent of 2<sup>52</sup>
+ * rather than by conversion instructions, which the Vector API of JDK 17 does not compile to single instructions;
+ * that is exact for whole numbers below 2<sup>52</sup>. The limits on the pay figures keep every product below
+ * that: wages and hours below 2<sup>24</sup>, bonuses below 2<sup>31</sup> and salaries below 2<sup>32</sup> cents,
+ * some $42 million. A group of employees with a figure outside those limits, a negative one included, is computed
+ * by the scalar kernel instead, which also throws where the figures overflow.
+ * <p>
+ * Only rounding half up and tables of up to four brackets are handled, where the bracket of a salary is picked
+ * by comparing it with every bound; see {@link #supports(TaxEngine)}.
+ */
+final class VectorPayrollKernel extends PayrollKernel {
+
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final int FIGURE_BITS = 24;
+    private static final int BONUS_BITS = 31;
+    private static final long SALARY_LIMIT = 1L << 32;
+    // A double of 2^52 has a unit mantissa bit of 1, so the mantissa of 2^52 + n is the whole number n
+    private static final double TWO_TO_52 = 0x1p52;
+    private static final long TWO_TO_52_BITS = Double.doubleToRawLongBits(TWO_TO_52);
+    private static final long MANTISSA_BITS = (1L << 52) - 1;
+    // Employees computed together, few enough for their figures to stay in the first-level cache
+    // and for the lane totals not to overflow
+    private static final int BLOCK = 1024;
+
+    private final ScalarPayrollKernel scalar;
+    private final Pass[] passes;
+    private final long bound1, bound2, bound3;
+    private final long rate0, rate1, rate2, rate3;
+    private final long intercept0, intercept1, intercept2, intercept3;
+    private final long uncappedRate;
+    private final long fixedCents;
+    private final long[] cappedRates;
+    private final long[] capCents;
+
+    VectorPayrollKernel(TaxEngine rules) {
+        TaxTable table = rules.getTable();
+        this.scalar = new ScalarPayrollKernel(rules);
+        this.bound1 = table.lowerBound(1);
+        this.bound2 = table.lowerBound(2);
+        this.bound3 = table.lowerBound(3);
+        this.rate0 = table.rate(0);
+        this.rate1 = table.rate(1);
+        this.rate2 = table.rate(2);
+        this.rate3 = table.rate(3);
+        this.intercept0 = table.intercept(0);
+        this.intercept1 = table.intercept(1);
+        this.intercept2 = table.intercept(2);
+        this.intercept3 = table.intercept(3);
+        this.uncappedRate = rules.getUncappedRate();
+        this.fixedCents = rules.getFixedCents();
+        this.cappedRates = rules.getCappedRates();
+        this.capCents = rules.getCapCents();
+        List<Pass> steps = new ArrayList<>();
+        steps.add(VectorPayrollKernel::salaries);
+        steps.add(table.getType() == TaxTable.Type.FLAT ? this::flatTaxes : this::marginalTaxes);
+        steps.add(this::deductions);
+        for (int d = 0; d < cappedRates.length; d++) {
+            long rate = cappedRates[d];
+            long cap = capCents[d];
+            steps.add((run, from, to) -> cappedDeductions(rate, cap, run, from, to));
+        }
+        steps.add(VectorPayrollKernel::sums);
+        this.passes = steps.toArray(new Pass[0]);
+    }
+
+    /**
+     * Returns a vector kernel for the tax rules if it handles them. Called by {@link PayrollKernel#forRules(TaxEngine)}
+     * through a method handle, as this class is compiled apart from the others.
+     *
+     * @param rules the tax rules to apply
+     * @return the vector kernel, or null if it cannot apply the rules
+     */
+    static PayrollKernel create(TaxEngine rules) {
+        return supports(rules) ? new VectorPayrollKernel(rules) : null;
+    }
+
+    /**
+     * Returns whether the kernel computes the figures of the rules exactly: rounding half up, a table of up to
+     * four brackets with rates of at most 100%, so the tax stays below the salary, and deductions that together
+     * take at most the whole salary plus a fixed amount below the salary limit.
+     *
+     * @param rules the tax rules
+     * @return true if the kernel can apply the rules
+     */
+    static boolean supports(TaxEngine rules) {
+        TaxTable table = rules.getTable();
+        if (rules.getRounding() != RoundingMode.HALF_UP || !table.isShort()) {
+            return false;
+        }
+        long deductionRate = rules.getUncappedRate();
+        for (long rate : rules.getCappedRates()) {
+            deductionRate += rate;
+        }
+        return deductionRate <= Money.RATE_SCALE && rules.getFixedCents() < SALARY_LIMIT;
+    }
+
+    @Override
+    public String getName() {
+        return "vector" + LONGS.length();
+    }
+
+    @Override
+    public long[] compute(PayrollColumns columns, int from, int to,
+                          long[] totalSalary, long[] taxes, double[] taxRate, long[] deductions) {
+        Run run = new Run(columns, totalSalary, taxes, taxRate, deductions);
+        int upper = from + LONGS.loopBound(to - from);
+        for (int start = from; start < upper; start += BLOCK) {
+            int end = Math.min(upper, start + BLOCK);
+            for (Pass pass : passes) {
+                if (!pass.apply(run, start, end)) {
+                    // Rare enough that the whole block is left to the scalar kernel
+                    add(run.totals, scalar.compute(columns, start, end, totalSalary, taxes, taxRate, deductions));
+                    break;
+                }
+            }
+        }
+        if (upper < to) {
+            add(run.totals, scalar.compute(columns, upper, to, totalSalary, taxes, taxRate, deductions));
+        }
+        return run.totals;
+    }
+
+    /**
+     * The input and output columns of one call, with the totals so far.
+     */
+    private static final class Run {
+        final long[] wageCents;
+        final long[] hoursHundredths;
+        final long[] bonusCents;
+        final long[] totalSalary;
+        final long[] taxes;
+        final double[] taxRate;
+        final long[] deductions;
+        final long[] totals = new long[4];
+
+        Run(PayrollColumns columns, long[] totalSalary, long[] taxes, double[] taxRate, long[] deductions) {
+            this.wageCents = columns.wageCents;
+            this.hoursHundredths = columns.hoursHundredths;
+            this.bonusCents = columns.bonusCents;
+            this.totalSalary = totalSalary;
+            this.taxes = taxes;
+            this.taxRate = taxRate;
+            this.deductions = deductions;
+        }
+    }
+
+    /**
+     * One step of computing the figures of a block, returning false if the block is to be left to the scalar kernel.
+     */
+    @FunctionalInterface
+    private interface Pass {
+        boolean apply(Run run, int from, int to);
+    }
+
+    // The block is computed in passes of one step each, which keeps every loop small enough for the JIT to compile
+    // the vector operations in it to instructions, while the block stays in the first-level cache between passes.
+    // The passes are called through one call site of several kinds of pass, which the JIT does not inline, so each
+    // is compiled on its own: inlined together into the block loop they outgrow its limit on inlining, and the
+    // vectors are then boxed as objects.
+
+    /**
+     * Computes the total salaries of a block, returning false if a figure of the block is outside the limits.
+     */
+    private static boolean salaries(Run run, int from, int to) {
+        long[] wageCents = run.wageCents;
+        long[] hoursHundredths = run.hoursHundredths;
+        long[] bonusCents = run.bonusCents;
+        long[] totalSalary = run.totalSalary;
+        for (int i = from; i < to; i += LONGS.length()) {
+            LongVector wage = LongVector.fromArray(LONGS, wageCents, i);
+            LongVector hours = LongVector.fromArray(LONGS, hoursHundredths, i);
+            LongVector bonus = LongVector.fromArray(LONGS, bonusCents, i);
+            // A logical shift leaves bits of a figure at or above its limit, or of a negative figure
+            if (wage.or(hours).lanewise(VectorOperators.LSHR, FIGURE_BITS)
+                    .or(bonus.lanewise(VectorOperators.LSHR, BONUS_BITS))
+                    .compare(VectorOperators.NE, 0).anyTrue()) {
+                return false;
+            }
+            LongVector salary = divideHalfUp(wage.mul(hours), FixedPoint.SCALE).add(bonus);
+            if (salary.compare(VectorOperators.GE, SALARY_LIMIT).anyTrue()) {
+                return false;
+            }
+            salary.intoArray(totalSalary, i);
+        }
+        return true;
+    }
+
+    private boolean flatTaxes(Run run, int from, int to) {
+        long[] totalSalary = run.totalSalary;
+        long[] taxes = run.taxes;
+        double[] taxRate = run.taxRate;
+        for (int i = from; i < to; i += LONGS.length()) {
+            LongVector salary = LongVector.fromArray(LONGS, totalSalary, i);
+            // The bounds ascend, so a salary above a bound is above all bounds before it and the last blend wins
+            LongVector rate = LongVector.broadcast(LONGS, rate0)
+                    .blend(rate1, salary.compare(VectorOperators.GT, bound1))
+                    .blend(rate2, salary.compare(VectorOperators.GT, bound2))
+                    .blend(rate3, salary.compare(VectorOperators.GT, bound3));
+            divideHalfUp(salary.mul(rate), Money.RATE_SCALE).intoArray(taxes, i);
+            toDouble(rate).div(Money.RATE_SCALE).intoArray(taxRate, i);
+        }
+        return true;
+    }
+
+    private boolean marginalTaxes(Run run, int from, int to) {
+        long[] totalSalary = run.totalSalary;
+        long[] taxes = run.taxes;
+        double[] taxRate = run.taxRate;
+        for (int i = from; i < to; i += LONGS.length()) {
+            LongVector salary = LongVector.fromArray(LONGS, totalSalary, i);
+            VectorMask<Long> above1 = salary.compare(VectorOperators.GT, bound1);
+            VectorMask<Long> above2 = salary.compare(VectorOperators.GT, bound2);
+            VectorMask<Long> above3 = salary.compare(VectorOperators.GT, bound3);
+            LongVector rate = LongVector.broadcast(LONGS, rate0).blend(rate1, above1).blend(rate2, above2).blend(rate3, above3);
+            LongVector intercept = LongVector.broadcast(LONGS, intercept0)
+                    .blend(intercept1, above1).blend(intercept2, above2).blend(intercept3, above3);
+            LongVector tax = divideHalfUp(intercept.add(salary.mul(rate)), Money.RATE_SCALE);
+            tax.intoArray(taxes, i);
+            DoubleVector salaryAsDouble = toDouble(salary);
+            toDouble(tax).div(salaryAsDouble)
+                    .blend(rate0 / (double) Money.RATE_SCALE, salaryAsDouble.compare(VectorOperators.EQ, 0))
+                    .intoArray(taxRate, i);
+        }
+        return true;
+    }
+
+    private boolean deductions(Run run, int from, int to) {
+        long[] totalSalary = run.totalSalary;
+        long[] deductions = run.deductions;
+        for (int i = from; i < to; i += LONGS.length()) {
+            LongVector salary = LongVector.fromArray(LONGS, totalSalary, i);
+            divideHalfUp(salary.mul(uncappedRate), Money.RATE_SCALE).add(fixedCents).intoArray(deductions, i);
+        }
+        return true;
+    }
+
+    private static boolean cappedDeductions(long rate, long cap, Run run, int from, int to) {
+        long[] totalSalary = run.totalSalary;
+        long[] deductions = run.deductions;
+        for (int i = from; i < to; i += LONGS.length()) {
+            LongVector salary = LongVector.fromArray(LONGS, totalSalary, i);
+            LongVector.fromArray(LONGS, deductions, i)
+                    .add(divideHalfUp(salary.mul(rate), Money.RATE_SCALE).min(cap))
+                    .intoArray(deductions, i);
+        }
+        return true;
+    }
+
+    /**
+     * Adds the figures of a block to the totals; the figures of a block are small enough for the lanes not to overflow.
+     */
+    private static boolean sums(Run run, int from, int to) {
+        long[] totalSalary = run.totalSalary;
+        long[] taxes = run.taxes;
+        long[] deductions = run.deductions;
+        long[] bonusCents = run.bonusCents;
+        LongVector salarySum = LongVector.zero(LONGS);
+        LongVector taxSum = LongVector.zero(LONGS);
+        LongVector deductionSum = LongVector.zero(LONGS);
+        LongVector bonusSum = LongVector.zero(LONGS);
+        for (int i = from; i < to; i += LONGS.length()) {
+            salarySum = salarySum.add(LongVector.fromArray(LONGS, totalSalary, i));
+            taxSum = taxSum.add(LongVector.fromArray(LONGS, taxes, i));
+            deductionSum = deductionSum.add(LongVector.fromArray(LONGS, deductions, i));
+            bonusSum = bonusSum.add(LongVector.fromArray(LONGS, bonusCents, i));
+        }
+        long[] totals = run.totals;
+        totals[0] = Math.addExact(totals[0], salarySum.reduceLanes(VectorOperators.ADD));
+        totals[1] = Math.addExact(totals[1], taxSum.reduceLanes(VectorOperators.ADD));
+        totals[2] = Math.addExact(totals[2], deductionSum.reduceLanes(VectorOperators.ADD));
+        totals[3] = Math.addExact(totals[3], bonusSum.reduceLanes(VectorOperators.ADD));
+        return true;
+    }
+
+    /**
+     * Divides lanes from 0 to 2<sup>52</sup> by a positive divisor, rounding half up.
+     */
+    private static LongVector divideHalfUp(LongVector dividend, long divisor) {
+        LongVector rounded = dividend.add(divisor >> 1);
+        // Off by at most one, as the quotient is far below 2^52 and the reciprocal is off by half a unit in the last place
+        LongVector quotient = toLong(toDouble(rounded).mul(1.0 / divisor));
+        LongVector remainder = rounded.sub(quotient.mul(divisor));
+        return quotient.add(1, remainder.compare(VectorOperators.GE, divisor))
+                .sub(1, remainder.compare(VectorOperators.LT, 0));
+    }
+
+    /**
+     * Converts lanes holding whole numbers from 0 to 2<sup>52</sup> to doubles, exactly.
+     */
+    private static DoubleVector toDouble(LongVector whole) {
+        return whole.or(TWO_TO_52_BITS).reinterpretAsDoubles().sub(TWO_TO_52);
+    }
+
+    /**
+     * Converts lanes holding doubles from 0 to 2<sup>52</sup> to the nearest whole numbers.
+     */
+    private static LongVector toLong(DoubleVector value) {
+        return value.add(TWO_TO_52).reinterpretAsLongs().and(MANTISSA_BITS);
+    }
+
+    private static void add(long[] totals, long[] more) {
+        for (int t = 0; t < totals.length; t++) {
+            totals[t] = Math.addExact(totals[t], more[t]);
+        }
+    }
+}